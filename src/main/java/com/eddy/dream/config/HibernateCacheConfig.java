@@ -0,0 +1,80 @@
+package com.eddy.dream.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for UserEntity
+ * Only active when user.entity-cache.enabled is true
+ *
+ * Regions are Caffeine caches created up front with a bounded size and TTL; Hibernate is not allowed
+ * to create any region on its own (it would be unbounded). Entries are per node: a write on another
+ * instance evicts them through the UserResponseCache broadcast, or failing that, once they expire.
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.entity-cache.enabled", havingValue = "true")
+public class HibernateCacheConfig {
+
+    /**
+     * Users by ID
+     */
+    public static final String USER_REGION = "users";
+
+    /**
+     * Username (natural ID) to user ID
+     */
+    public static final String USER_NATURAL_ID_REGION = "users-natural-id";
+
+    /**
+     * IDs returned by cacheable queries (lookup by email)
+     */
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    /**
+     * Last write per table, invalidates cached query results - one entry per table, must never be evicted
+     */
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+        @Value("${user.entity-cache.maximum-size:10000}") long maximumSize,
+        @Value("${user.entity-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        // Own provider instance, so every application context gets its own regions
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> bounded = new CaffeineConfiguration<>();
+        bounded.setMaximumSize(OptionalLong.of(maximumSize));
+        bounded.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        bounded.setStatisticsEnabled(true);
+        cacheManager.createCache(USER_REGION, bounded);
+        cacheManager.createCache(USER_NATURAL_ID_REGION, bounded);
+        cacheManager.createCache(QUERY_RESULTS_REGION, bounded);
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new MutableConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.eddy.dream.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis Configuration
+ * Only active when a Redis-backed component is enabled
+ */
+@Configuration
+@ConditionalOnExpression("'${jwt.revocation.store:memory}' == 'redis' or '${user.response-cache.store:memory}' == 'redis'")
+public class RedisConfig {
+    
+    /**
+     * Pub/sub listener container for cross-node notifications
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
@@ -1,9 +1,14 @@
 package com.eddy.dream.config;
 
+import com.eddy.dream.config.security.BCryptCalibration;
+import com.eddy.dream.config.security.CalibratedBCryptPasswordEncoder;
+import com.eddy.dream.config.security.ExecutorBackedPasswordEncoder;
 import com.eddy.dream.config.security.JwtAuthenticationEntryPoint;
 import com.eddy.dream.config.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,7 +18,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder.BCryptVersion;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -62,6 +67,7 @@ public class SecurityConfig {
                     "/api/auth/**",
                     "/api/public/**",
                     "/actuator/health",
+                    "/actuator/health/**",
                     "/error",
                     // Swagger/OpenAPI endpoints
                     "/swagger-ui/**",
@@ -71,6 +77,10 @@ public class SecurityConfig {
                     "/webjars/**"
                 ).permitAll()
                 
+                // Admin endpoints - users listed in security.admin-usernames
+                // Actuator beyond health (metrics, password hashing report) is operational data - admins only
+                .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
+                
                 // All other requests require authentication (any logged-in user can access)
                 .anyRequest().authenticated()
             );
@@ -81,12 +91,41 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * BCrypt cost factor - fixed if password.bcrypt.strength is set, otherwise calibrated to the latency target
+     */
+    @Bean
+    public BCryptCalibration bcryptCalibration(
+        @Value("${password.bcrypt.strength:0}") int strength,
+        @Value("${password.bcrypt.target-millis:100}") long targetMillis,
+        @Value("${password.bcrypt.min-strength:10}") int minStrength,
+        @Value("${password.bcrypt.max-strength:14}") int maxStrength
+    ) {
+        return strength > 0
+            ? BCryptCalibration.fixed(strength)
+            : BCryptCalibration.calibrate(targetMillis, minStrength, maxStrength);
+    }
+    
     /**
      * Configure Password Encoder
+     * BCrypt runs on a dedicated bounded executor, so a login storm cannot pin every request thread;
+     * hashes with a lower cost or another version are rehashed on the next successful login
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+        BCryptCalibration bcryptCalibration,
+        MeterRegistry meterRegistry,
+        @Value("${password.hashing.threads:0}") int threads,
+        @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+        @Value("${password.hashing.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        return new ExecutorBackedPasswordEncoder(
+            new CalibratedBCryptPasswordEncoder(BCryptVersion.$2A, bcryptCalibration.getStrength()),
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+            queueCapacity,
+            retryAfterSeconds,
+            meterRegistry
+        );
     }
     
     /**
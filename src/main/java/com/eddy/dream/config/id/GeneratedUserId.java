@@ -0,0 +1,17 @@
+package com.eddy.dream.config.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an ID assigned by the configured UserIdGenerator (user.id.strategy)
+ */
+@IdGeneratorType(UserIdHibernateGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUserId {
+}
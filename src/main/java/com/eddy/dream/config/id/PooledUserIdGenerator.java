@@ -0,0 +1,134 @@
+package com.eddy.dream.config.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.support.SQLExceptionSubclassTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pooled (hi-lo) user IDs from a single-row table sequence
+ * 
+ * Each node reserves user.id.pool-size IDs per round trip and hands them out from memory,
+ * so IDs ascend per node and interleave by block across nodes. A restart skips the rest of its block.
+ * The table is created on first use and seeded past the highest existing users.id.
+ * 
+ * The sequence is advanced on a connection of its own, committed immediately, never inside the caller's
+ * transaction - otherwise the row lock would serialize every transaction that inserts a user.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user.id.strategy", havingValue = "pooled")
+public class PooledUserIdGenerator implements UserIdGenerator {
+    
+    static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS user_id_sequence (id INT NOT NULL PRIMARY KEY, next_val BIGINT NOT NULL)";
+    
+    static final String SEED_SQL = "INSERT INTO user_id_sequence (id, next_val) "
+        + "SELECT 1, COALESCE(MAX(id), 0) + 1 FROM users WHERE NOT EXISTS (SELECT 1 FROM user_id_sequence)";
+    
+    static final String ADVANCE_SQL = "UPDATE user_id_sequence SET next_val = next_val + ? WHERE id = 1";
+    
+    static final String CURRENT_SQL = "SELECT next_val FROM user_id_sequence WHERE id = 1";
+    
+    private final DataSource dataSource;
+    
+    private final int poolSize;
+    
+    private final SQLExceptionTranslator exceptionTranslator = new SQLExceptionSubclassTranslator();
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private boolean initialized;
+    
+    private long next;
+    
+    private long limit;
+    
+    public PooledUserIdGenerator(DataSource dataSource, @Value("${user.id.pool-size:100}") int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("user.id.pool-size must be positive, was " + poolSize);
+        }
+        this.dataSource = dataSource;
+        this.poolSize = poolSize;
+    }
+    
+    @Override
+    public long nextId() {
+        lock.lock();
+        try {
+            if (next == limit) {
+                next = inOwnTransaction(this::reserveBlock);
+                limit = next + poolSize;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * First ID of a newly reserved block
+     */
+    private long reserveBlock(Connection connection) throws SQLException {
+        if (!initialized) {
+            createSequence(connection);
+            initialized = true;
+        }
+        try (PreparedStatement advance = connection.prepareStatement(ADVANCE_SQL);
+             PreparedStatement current = connection.prepareStatement(CURRENT_SQL)) {
+            advance.setLong(1, poolSize);
+            advance.executeUpdate();
+            try (ResultSet rs = current.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("user_id_sequence has no row");
+                }
+                return rs.getLong(1) - poolSize;
+            }
+        }
+    }
+    
+    private void createSequence(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE_SQL);
+            connection.commit();
+            if (statement.executeUpdate(SEED_SQL) > 0) {
+                log.info("Created user_id_sequence");
+            }
+            connection.commit();
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // Another node seeded it first
+            connection.rollback();
+        }
+    }
+    
+    private <T> T inOwnTransaction(ConnectionCallback<T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.doInConnection(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("Reserve user IDs", ADVANCE_SQL, e);
+        }
+    }
+}
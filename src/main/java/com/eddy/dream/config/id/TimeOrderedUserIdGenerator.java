@@ -0,0 +1,64 @@
+package com.eddy.dream.config.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coordination-free user IDs: milliseconds since 2025-01-01 | node id | counter
+ * 
+ * 41 + 4 + 8 bits, so IDs stay below 2^53 and survive JSON clients that read numbers as doubles.
+ * That allows 16 nodes (user.id.node-id, unique per running instance) and 256 IDs per millisecond per node;
+ * beyond that, or if the clock steps back, IDs continue from the last one issued instead of waiting.
+ * IDs are far above any AUTO_INCREMENT value, so existing rows keep sorting first.
+ */
+@Component
+@ConditionalOnProperty(name = "user.id.strategy", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedUserIdGenerator implements UserIdGenerator {
+    
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private final long nodeBits;
+    
+    private final AtomicLong lastId = new AtomicLong();
+    
+    public TimeOrderedUserIdGenerator(@Value("${user.id.node-id:0}") int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("user.id.node-id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+    
+    @Override
+    public long nextId() {
+        while (true) {
+            long last = lastId.get();
+            long candidate = ((currentTimeMillis() - EPOCH_MILLIS) << TIMESTAMP_SHIFT) | nodeBits;
+            long next;
+            if (candidate > last) {
+                next = candidate;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                // Counter exhausted for this millisecond - borrow the next one
+                next = (((last >>> TIMESTAMP_SHIFT) + 1) << TIMESTAMP_SHIFT) | nodeBits;
+            }
+            if (lastId.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+    
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,16 @@
+package com.eddy.dream.config.id;
+
+/**
+ * Source of user IDs, assigned before the INSERT
+ * 
+ * An ID known up front lets Hibernate and the bulk import batch their INSERTs;
+ * with IDENTITY every INSERT has to run on its own to read the generated key back.
+ * IDs increase with insertion time (roughly, across nodes), so ordering by ID stays meaningful.
+ */
+public interface UserIdGenerator {
+    
+    /**
+     * Next unused ID
+     */
+    long nextId();
+}
@@ -0,0 +1,32 @@
+package com.eddy.dream.config.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate generator behind @GeneratedUserId
+ * Created through Spring's Hibernate bean container, which injects the configured UserIdGenerator.
+ */
+public class UserIdHibernateGenerator implements BeforeExecutionGenerator {
+    
+    private final transient UserIdGenerator userIdGenerator;
+    
+    public UserIdHibernateGenerator(UserIdGenerator userIdGenerator) {
+        this.userIdGenerator = userIdGenerator;
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return userIdGenerator.nextId();
+    }
+    
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,46 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.util.TokenRoles;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal - Spring Security User that also carries the user ID and status
+ */
+@Getter
+public class AuthenticatedUser extends User {
+    
+    /**
+     * All users have basic user role
+     */
+    public static final List<GrantedAuthority> DEFAULT_AUTHORITIES = List.of(TokenRoles.authority("ROLE_USER"));
+    
+    private final Long id;
+    
+    private final UserStatus status;
+    
+    public AuthenticatedUser(
+        Long id,
+        String username,
+        String password,
+        UserStatus status,
+        Collection<? extends GrantedAuthority> authorities
+    ) {
+        super(
+            username,
+            password,
+            status == UserStatus.ACTIVE,
+            true,
+            true,
+            status != UserStatus.LOCKED,
+            authorities
+        );
+        this.id = id;
+        this.status = status;
+    }
+}
@@ -0,0 +1,100 @@
+package com.eddy.dream.config.security;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Instant;
+
+/**
+ * BCrypt cost factor chosen for this host
+ * 
+ * Calibration times a low-cost hash, extrapolates (each cost step doubles the work) to the highest cost
+ * that stays within the latency target, clamps it to [minStrength, maxStrength], then times one hash
+ * at the chosen cost to report the real figure.
+ */
+@Slf4j
+@Value
+@Builder
+public class BCryptCalibration {
+    
+    private static final int BASELINE_STRENGTH = 8;
+    
+    private static final int BASELINE_SAMPLES = 5;
+    
+    /**
+     * Chosen cost factor
+     */
+    int strength;
+    
+    /**
+     * True if the strength was configured explicitly and no calibration ran
+     */
+    boolean fixed;
+    
+    /**
+     * Latency target per hash in milliseconds
+     */
+    long targetMillis;
+    
+    /**
+     * Fastest baseline hash at BASELINE_STRENGTH in milliseconds
+     */
+    double baselineMillis;
+    
+    /**
+     * Measured time of one hash at the chosen strength in milliseconds
+     */
+    double measuredMillis;
+    
+    Instant calibratedAt;
+    
+    /**
+     * Use a configured strength without measuring
+     */
+    public static BCryptCalibration fixed(int strength) {
+        return BCryptCalibration.builder()
+            .strength(strength)
+            .fixed(true)
+            .calibratedAt(Instant.now())
+            .build();
+    }
+    
+    /**
+     * Measure this host and pick the highest strength within the target
+     */
+    public static BCryptCalibration calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Warm-up, then keep the fastest sample - slower ones are noise from JIT or other load
+        timeHash(BASELINE_STRENGTH);
+        double baselineMillis = Double.MAX_VALUE;
+        for (int i = 0; i < BASELINE_SAMPLES; i++) {
+            baselineMillis = Math.min(baselineMillis, timeHash(BASELINE_STRENGTH));
+        }
+        
+        int strength = minStrength;
+        while (strength < maxStrength
+            && baselineMillis * Math.pow(2, strength + 1 - BASELINE_STRENGTH) <= targetMillis) {
+            strength++;
+        }
+        
+        BCryptCalibration calibration = BCryptCalibration.builder()
+            .strength(strength)
+            .fixed(false)
+            .targetMillis(targetMillis)
+            .baselineMillis(baselineMillis)
+            .measuredMillis(timeHash(strength))
+            .calibratedAt(Instant.now())
+            .build();
+        
+        log.info("BCrypt calibrated: strength {} takes {} ms (target {} ms, allowed {}-{})",
+            strength, String.format("%.1f", calibration.getMeasuredMillis()), targetMillis, minStrength, maxStrength);
+        return calibration;
+    }
+    
+    private static double timeHash(int strength) {
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration-password", BCrypt.gensalt(strength));
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+}
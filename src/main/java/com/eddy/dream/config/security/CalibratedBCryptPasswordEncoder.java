@@ -0,0 +1,45 @@
+package com.eddy.dream.config.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCryptPasswordEncoder that asks for a rehash when a stored hash is weaker than the current settings
+ * 
+ * Hashes with a lower cost, another version or another algorithm are rehashed; hashes with a higher cost
+ * are kept, so a restart on a slower host (lower calibrated cost) never weakens stored hashes.
+ * Every node calibrates on its own - multi-node deployments must pin password.bcrypt.strength,
+ * otherwise users alternating between nodes with different costs are rehashed at the higher one and stay there.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$(2[abyx]?)\\$(\\d\\d)\\$[./A-Za-z0-9]{53}$");
+    
+    private final BCryptVersion version;
+    
+    private final int strength;
+    
+    public CalibratedBCryptPasswordEncoder(BCryptVersion version, int strength) {
+        super(version, strength);
+        this.version = version;
+        this.strength = strength;
+    }
+    
+    /**
+     * Called after a successful match - true if the hash uses another version or a lower cost
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return true;
+        }
+        return !version.getVersion().equals("$" + matcher.group(1))
+            || Integer.parseInt(matcher.group(2)) < strength;
+    }
+}
@@ -0,0 +1,138 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder decorator that runs hashing on a dedicated, bounded executor
+ * 
+ * At most "threads" hashes run at once, at most "queueCapacity" wait; anything beyond that is
+ * rejected immediately with ServiceBusyException (429) instead of pinning more request threads on BCrypt.
+ * 
+ * Metrics: password.hashing.queue.depth, password.hashing.active (gauges),
+ * password.hashing.wait, password.hashing.execution{operation} (timers), password.hashing.rejected (counter)
+ */
+@Slf4j
+public class ExecutorBackedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    
+    private final PasswordEncoder delegate;
+    
+    private final ThreadPoolExecutor executor;
+    
+    private final long retryAfterSeconds;
+    
+    private final Timer waitTimer;
+    
+    private final Timer encodeTimer;
+    
+    private final Timer matchesTimer;
+    
+    private final Counter rejectedCounter;
+    
+    public ExecutorBackedPasswordEncoder(
+        PasswordEncoder delegate,
+        int threads,
+        int queueCapacity,
+        long retryAfterSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("password-hashing-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+            .description("Password hashing tasks waiting for a thread")
+            .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashing tasks currently running")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+            .description("Time a password hashing task spent queued")
+            .register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing.execution")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.execution")
+            .tag("operation", "matches")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+            .description("Password hashing tasks rejected because the executor was saturated")
+            .register(meterRegistry);
+        
+        log.info("Password hashing executor: {} threads, queue capacity {}", threads, queueCapacity);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+    
+    /**
+     * Only inspects the hash prefix - cheap, runs on the caller thread
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    /**
+     * Stop accepting work on context shutdown
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+    
+    private <T> T execute(Supplier<T> task, Timer executionTimer) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return executionTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many login or registration requests, please retry later",
+                retryAfterSeconds);
+        }
+        
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.config.security.revocation.TokenRevocationService;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.util.JwtUtil;
+import com.eddy.dream.util.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the principal for a bearer JWT
+ * 
+ * Previously resolved tokens are served from TokenAuthenticationCache without re-verification,
+ * revocation is checked on every request through the Bloom filter in TokenRevocationService.
+ * Lookup mode (default): loads the user through UserDetailsService on every request.
+ * Stateless mode (jwt.stateless-auth=true): builds the principal from the token claims alone,
+ * tokens issued before a status change are rejected through TokenCutoffRegistry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationResolver {
+    
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+    private final TokenCutoffRegistry tokenCutoffRegistry;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final TokenRevocationService tokenRevocationService;
+    
+    @Value("${jwt.stateless-auth:false}")
+    private boolean statelessAuth;
+    
+    /**
+     * Resolve the authenticated principal for a raw bearer token
+     * 
+     * @return principal, or null if the token must not authenticate the request
+     * @throws io.jsonwebtoken.JwtException if the token fails verification
+     */
+    public UserDetails resolve(String rawToken) {
+        TokenAuthenticationCache.Entry cached = tokenAuthenticationCache.get(rawToken);
+        if (cached != null) {
+            return isRevoked(cached.token()) ? null : cached.principal();
+        }
+        
+        VerifiedToken token = jwtUtil.verifyToken(rawToken);
+        UserDetails userDetails = resolve(token);
+        if (userDetails != null) {
+            tokenAuthenticationCache.put(rawToken, token, userDetails);
+        }
+        return userDetails;
+    }
+    
+    /**
+     * Resolve the authenticated principal for a verified token
+     * 
+     * @return principal, or null if the token must not authenticate the request
+     */
+    public UserDetails resolve(VerifiedToken token) {
+        if (token.getSubject() == null || isRevoked(token)) {
+            return null;
+        }
+        
+        UserDetails userDetails = (statelessAuth && token.isSelfContained())
+            ? buildFromClaims(token)
+            : userDetailsService.loadUserByUsername(token.getSubject());
+        
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            log.debug("Rejected token of inactive user {}", token.getSubject());
+            return null;
+        }
+        
+        return jwtUtil.validateToken(token, userDetails) ? userDetails : null;
+    }
+    
+    /**
+     * Revoked individually (logout) or issued before the user's cutoff
+     */
+    private boolean isRevoked(VerifiedToken token) {
+        return tokenCutoffRegistry.isRevoked(token) || tokenRevocationService.isRevoked(token);
+    }
+    
+    /**
+     * Build principal from claims only - no database access
+     */
+    private UserDetails buildFromClaims(VerifiedToken token) {
+        return new AuthenticatedUser(
+            token.getUserId(),
+            token.getSubject(),
+            "",
+            UserStatus.valueOf(token.getStatus()),
+            token.getAuthorities()
+        );
+    }
+}
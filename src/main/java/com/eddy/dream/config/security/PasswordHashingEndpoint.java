@@ -0,0 +1,98 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.repository.projection.PasswordHashPrefixCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Actuator endpoint /actuator/passwordhashing (admins only)
+ * BCrypt calibration result and how many stored hashes use each version/cost
+ * 
+ * Counting the hashes scans the whole users table, so the counts are kept for
+ * password.hashing.report-ttl-seconds and taken by one caller at a time.
+ */
+@Component
+@Endpoint(id = "passwordhashing")
+public class PasswordHashingEndpoint {
+    
+    private static final Pattern BCRYPT_PREFIX = Pattern.compile("^\\$(2[abyx]?)\\$(\\d\\d)\\$$");
+    
+    private final BCryptCalibration bcryptCalibration;
+    
+    private final UserRepository userRepository;
+    
+    private final Duration ttl;
+    
+    private volatile StoredHashes cached;
+    
+    public PasswordHashingEndpoint(
+        BCryptCalibration bcryptCalibration,
+        UserRepository userRepository,
+        @Value("${password.hashing.report-ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.bcryptCalibration = bcryptCalibration;
+        this.userRepository = userRepository;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+    
+    @ReadOperation
+    public Map<String, Object> passwordHashing() {
+        String currentPrefix = String.format("$2a$%02d$", bcryptCalibration.getStrength());
+        StoredHashes storedHashes = storedHashes();
+        
+        // Same rule as CalibratedBCryptPasswordEncoder.upgradeEncoding: lower cost or another version
+        long outdated = 0;
+        for (Map.Entry<String, Long> prefixCount : storedHashes.counts().entrySet()) {
+            Matcher matcher = BCRYPT_PREFIX.matcher(prefixCount.getKey());
+            if (!matcher.matches() || !"2a".equals(matcher.group(1))
+                || Integer.parseInt(matcher.group(2)) < bcryptCalibration.getStrength()) {
+                outdated += prefixCount.getValue();
+            }
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calibration", bcryptCalibration);
+        result.put("currentPrefix", currentPrefix);
+        result.put("storedHashes", storedHashes.counts());
+        result.put("storedHashesCountedAt", storedHashes.countedAt());
+        result.put("pendingRehash", outdated);
+        return result;
+    }
+    
+    private StoredHashes storedHashes() {
+        StoredHashes current = cached;
+        if (current != null && isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = cached;
+            if (current == null || !isFresh(current)) {
+                Map<String, Long> counts = new TreeMap<>();
+                for (PasswordHashPrefixCount prefixCount : userRepository.countPasswordHashPrefixes()) {
+                    counts.put(prefixCount.prefix(), prefixCount.count());
+                }
+                current = new StoredHashes(counts, Instant.now());
+                cached = current;
+            }
+            return current;
+        }
+    }
+    
+    private boolean isFresh(StoredHashes storedHashes) {
+        return storedHashes.countedAt().plus(ttl).isAfter(Instant.now());
+    }
+    
+    private record StoredHashes(Map<String, Long> counts, Instant countedAt) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.util.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Verified token cache
+ * 
+ * Maps the SHA-256 digest of a raw bearer token to the principal it resolved to, so a client
+ * reusing its token skips signature verification and the user load on subsequent requests.
+ * Entries expire at the token's "exp", are bounded in number, and are dropped when the user changes.
+ * Only tokens that passed verification are ever inserted.
+ */
+@Slf4j
+@Component
+public class TokenAuthenticationCache {
+    
+    private final Cache<String, Entry> cache;
+    
+    private final boolean enabled;
+    
+    @Autowired
+    public TokenAuthenticationCache(
+        MeterRegistry meterRegistry,
+        @Value("${jwt.cache.enabled:true}") boolean enabled,
+        @Value("${jwt.cache.maximum-size:10000}") long maximumSize
+    ) {
+        this(meterRegistry, enabled, maximumSize, Ticker.systemTicker());
+    }
+    
+    /**
+     * With the clock the cache measures expiry against - tests advance it instead of waiting
+     */
+    TokenAuthenticationCache(MeterRegistry meterRegistry, boolean enabled, long maximumSize, Ticker ticker) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .ticker(ticker)
+            .expireAfter(new ExpireAtTokenExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.token.authentication");
+    }
+    
+    /**
+     * Cached principal for the raw token, or null
+     */
+    public Entry get(String rawToken) {
+        return enabled ? cache.getIfPresent(digest(rawToken)) : null;
+    }
+    
+    /**
+     * Cache the principal resolved for a verified token
+     */
+    public void put(String rawToken, VerifiedToken token, UserDetails principal) {
+        if (enabled) {
+            cache.put(digest(rawToken), new Entry(token, principal));
+        }
+    }
+    
+    /**
+     * Drop the cached principal of a single token
+     */
+    public void evict(String rawToken) {
+        cache.invalidate(digest(rawToken));
+    }
+    
+    /**
+     * Drop every cached principal of the user
+     */
+    public void evictUser(String username) {
+        cache.asMap().values().removeIf(entry -> entry.principal().getUsername().equals(username));
+    }
+    
+    /**
+     * Profile or status changes invalidate the cached principals once committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        log.debug("Evicting cached token authentications of user {}", event.getUsername());
+        evictUser(event.getUsername());
+    }
+    
+    private static String digest(String rawToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Cached verification result and the principal it resolved to
+     */
+    public record Entry(VerifiedToken token, UserDetails principal) {
+    }
+    
+    /**
+     * Entries live exactly until the token expires
+     */
+    private static class ExpireAtTokenExpiry implements Expiry<String, Entry> {
+        
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.token().getExpiration());
+            return Math.max(0, remaining.toNanos());
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.util.VerifiedToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user "issued-before" cutoffs
+ * 
+ * When a user's status changes, every token issued for that user up to that moment is rejected,
+ * so lock/deactivation takes effect immediately even when the token itself is trusted (stateless mode).
+ * A cutoff only matters while tokens issued before it can still be valid, so entries are dropped
+ * once they are older than the token lifetime.
+ * 
+ * The cutoff is taken once the change has committed: a login racing the change either reads the old status
+ * before the commit (and its token falls under the cutoff) or reads the new one. Token timestamps have second
+ * precision, so a token issued in the same second as the cutoff counts as issued before it - including a login
+ * right after a user is re-enabled, which succeeds from the next second on.
+ */
+@Slf4j
+@Component
+public class TokenCutoffRegistry {
+    
+    private final Map<String, Instant> cutoffs = new ConcurrentHashMap<>();
+    
+    @Value("${jwt.expiration}")
+    private Long expiration;
+    
+    /**
+     * Reject every token of the user issued at or before the given instant
+     */
+    public void revokeIssuedBefore(String username, Instant cutoff) {
+        // Token timestamps have second precision
+        Instant truncated = cutoff.truncatedTo(ChronoUnit.SECONDS);
+        cutoffs.merge(username, truncated, (current, next) -> next.isAfter(current) ? next : current);
+        purgeExpired(Instant.now());
+        log.info("Tokens of user {} issued before {} are no longer accepted", username, truncated);
+    }
+    
+    /**
+     * Check if the token was issued before its user's cutoff
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (cutoffs.isEmpty()) {
+            return false;
+        }
+        Instant cutoff = cutoffs.get(token.getSubject());
+        return cutoff != null && !token.getIssuedAt().isAfter(cutoff);
+    }
+    
+    /**
+     * Status changes invalidate every token issued so far, once committed (a rolled-back change revokes nothing)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getChangeType() == UserChangedEvent.ChangeType.STATUS_CHANGED) {
+            revokeIssuedBefore(event.getUsername(), Instant.now());
+        }
+    }
+    
+    /**
+     * Drop cutoffs no live token can be affected by
+     */
+    private void purgeExpired(Instant now) {
+        Instant oldestLiveIssue = now.minusSeconds(expiration);
+        cutoffs.values().removeIf(cutoff -> cutoff.isBefore(oldestLiveIssue));
+    }
+}
@@ -0,0 +1,35 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.util.TokenRoles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Authorities granted to a user
+ * Every user has ROLE_USER; usernames listed in security.admin-usernames also get ROLE_ADMIN.
+ * Returns the shared TokenRoles lists, so nothing is allocated per call.
+ */
+@Component
+public class UserAuthorities {
+    
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+        TokenRoles.decode(TokenRoles.encode(List.of(TokenRoles.authority("ROLE_USER"), TokenRoles.authority("ROLE_ADMIN"))));
+    
+    private final Set<String> adminUsernames;
+    
+    public UserAuthorities(@Value("${security.admin-usernames:}") List<String> adminUsernames) {
+        this.adminUsernames = adminUsernames.stream()
+            .map(String::trim)
+            .filter(username -> !username.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+    
+    public List<GrantedAuthority> of(String username) {
+        return adminUsernames.contains(username) ? ADMIN_AUTHORITIES : AuthenticatedUser.DEFAULT_AUTHORITIES;
+    }
+}
@@ -0,0 +1,81 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.service.cache.UserCacheStore;
+import com.eddy.dream.service.cache.UserChange;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Carries user changes to the security caches of the other nodes
+ * 
+ * The node making a change updates its own token, user-details and cutoff caches through their event listeners.
+ * This relay broadcasts the committed change over the store's pub/sub; every other node then evicts the user's
+ * cached token authentications and user details and, for a status change, revokes the user's tokens issued up to
+ * the change. Without it a locked user would keep authenticating on other nodes until their caches expire.
+ */
+@Slf4j
+@Component
+public class UserChangeRelay {
+    
+    /**
+     * Marks this node's broadcasts, which its own listeners have already applied
+     */
+    private final String origin = UUID.randomUUID().toString();
+    
+    private final UserCacheStore store;
+    
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    
+    private final UserDetailsServiceImpl userDetailsService;
+    
+    private final TokenCutoffRegistry tokenCutoffRegistry;
+    
+    public UserChangeRelay(
+        UserCacheStore store,
+        TokenAuthenticationCache tokenAuthenticationCache,
+        UserDetailsServiceImpl userDetailsService,
+        TokenCutoffRegistry tokenCutoffRegistry
+    ) {
+        this.store = store;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+        this.userDetailsService = userDetailsService;
+        this.tokenCutoffRegistry = tokenCutoffRegistry;
+    }
+    
+    @PostConstruct
+    public void init() {
+        store.subscribeChanged(this::apply);
+    }
+    
+    /**
+     * Broadcast every change once committed, password changes included - other nodes may cache the old hash
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        try {
+            store.publishChanged(new UserChange(
+                origin, event.getUserId(), event.getUsername(), event.getChangeType(), Instant.now()));
+        } catch (Exception e) {
+            // Other nodes catch up once their caches expire
+            log.error("Could not broadcast change of user {}: {}", event.getUsername(), e.getMessage());
+        }
+    }
+    
+    private void apply(UserChange change) {
+        if (origin.equals(change.origin())) {
+            return;
+        }
+        log.debug("Applying change of user {} made on another node", change.username());
+        tokenAuthenticationCache.evictUser(change.username());
+        userDetailsService.evictUser(change.username());
+        if (change.changeType() == UserChangedEvent.ChangeType.STATUS_CHANGED) {
+            tokenCutoffRegistry.revokeIssuedBefore(change.username(), change.changedAt());
+        }
+    }
+}
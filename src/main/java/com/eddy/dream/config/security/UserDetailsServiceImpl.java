@@ -1,57 +1,164 @@
 package com.eddy.dream.config.security;
 
-import com.eddy.dream.enums.UserStatus;
 import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.event.UserChangedEvent;
 import com.eddy.dream.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.eddy.dream.repository.projection.UserCredentials;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
 
 /**
  * Spring Security UserDetailsService Implementation
  * Loads user information from database
+ *
+ * Loaded users are cached by username (bounded, with TTL) and evicted once a change to the user commits.
+ * The cache holds immutable credential projections; every call returns a new principal, because Spring Security
+ * erases the credentials of the principal it authenticated. Unknown usernames are kept briefly in the miss cache.
+ *
+ * As UserDetailsPasswordService it stores the new hash whenever a stored password (other cost or version)
+ * is upgraded after a successful login - by AuthServiceImpl, or by DaoAuthenticationProvider - and publishes
+ * the credentials change.
  */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
     
+    private final UserAuthorities userAuthorities;
+    
+    private final UserMissCache userMissCache;
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private final LoadingCache<String, UserCredentials> cache;
+    
+    private final boolean cacheEnabled;
+    
+    public UserDetailsServiceImpl(
+        UserRepository userRepository,
+        UserAuthorities userAuthorities,
+        UserMissCache userMissCache,
+        ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry,
+        @Value("${user-details.cache.enabled:true}") boolean cacheEnabled,
+        @Value("${user-details.cache.maximum-size:10000}") long maximumSize,
+        @Value("${user-details.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.userAuthorities = userAuthorities;
+        this.userMissCache = userMissCache;
+        this.eventPublisher = eventPublisher;
+        this.cacheEnabled = cacheEnabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build(this::loadCredentials);
+        // Loading cache, so load latency is exported as cache.load.duration alongside hit/miss counts
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.user.details");
+    }
+    
+    /**
+     * No @Transactional here - a cache hit must not open a transaction (and borrow a connection)
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        if (userMissCache.isMissingUsername(username)) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        UserCredentials user = cacheEnabled
+            ? cache.get(username)
+            : loadCredentials(username);
         
         return buildUserDetails(user);
     }
     
     /**
-     * Build Spring Security UserDetails object
+     * Store the rehashed password and return the principal carrying it
+     * The only place a rehash is written - used by AuthServiceImpl's login as well as by DaoAuthenticationProvider
      */
-    private UserDetails buildUserDetails(UserEntity user) {
-        // All users have basic user role
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        cache.invalidate(user.getUsername());
+        log.info("Upgraded password hash of user {}", user.getUsername());
         
-        return User.builder()
-            .username(user.getUsername())
-            .password(user.getPassword())
-            .authorities(authorities)
-            .accountExpired(false)
-            .accountLocked(user.getStatus() == UserStatus.LOCKED)
-            .credentialsExpired(false)
-            .disabled(user.getStatus() != UserStatus.ACTIVE)
-            .build();
+        if (!(user instanceof AuthenticatedUser authenticated)) {
+            userRepository.findByUsername(user.getUsername()).ifPresent(entity -> eventPublisher.publishEvent(
+                new UserChangedEvent(entity.getId(), entity.getUsername(), UserChangedEvent.ChangeType.CREDENTIALS_CHANGED)
+            ));
+            return User.withUserDetails(user).password(newPassword).build();
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(
+            authenticated.getId(), authenticated.getUsername(), UserChangedEvent.ChangeType.CREDENTIALS_CHANGED
+        ));
+        return new AuthenticatedUser(
+            authenticated.getId(),
+            authenticated.getUsername(),
+            newPassword,
+            authenticated.getStatus(),
+            authenticated.getAuthorities()
+        );
+    }
+    
+    /**
+     * Profile or status changes evict the cached user once committed
+     * Last-login updates do not touch any cached field and are not published
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.getUsername());
+    }
+    
+    /**
+     * Drop the cached user details of the user
+     */
+    public void evictUser(String username) {
+        log.debug("Evicting cached user details of {}", username);
+        cache.invalidate(username);
+    }
+    
+    /**
+     * Natural-id load, served from the second-level cache when enabled; only the credential fields are kept
+     * Unknown usernames throw and go to the miss cache instead
+     */
+    private UserCredentials loadCredentials(String username) {
+        UserEntity user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            userMissCache.recordMissingUsername(username);
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        return new UserCredentials(user.getId(), user.getUsername(), user.getPassword(), user.getStatus());
+    }
+    
+    /**
+     * Build Spring Security UserDetails object
+     */
+    private UserDetails buildUserDetails(UserCredentials user) {
+        return new AuthenticatedUser(
+            user.id(),
+            user.username(),
+            user.password(),
+            user.status(),
+            userAuthorities.of(user.username())
+        );
     }
 }
-
@@ -0,0 +1,70 @@
+package com.eddy.dream.config.security.revocation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Redis revocation store shared by all nodes
+ * 
+ * Each revoked ID is a key with a TTL equal to the token's remaining lifetime,
+ * and is broadcast on a pub/sub channel so every node can update its local Bloom filter.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisRevocationStore implements RevocationStore {
+    
+    static final String KEY_PREFIX = "dream:jwt:revoked:";
+    static final String CHANNEL = "dream:jwt:revocations";
+    
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "1", ttl);
+        redisTemplate.convertAndSend(CHANNEL, tokenId);
+    }
+    
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+    }
+    
+    @Override
+    public Set<String> liveTokenIds() {
+        Set<String> tokenIds = new HashSet<>();
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> tokenIds.add(key.substring(KEY_PREFIX.length())));
+        }
+        return tokenIds;
+    }
+    
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+            (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(CHANNEL)
+        );
+    }
+}
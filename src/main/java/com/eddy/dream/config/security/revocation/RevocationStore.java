@@ -0,0 +1,33 @@
+package com.eddy.dream.config.security.revocation;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Shared store of revoked token IDs ("jti")
+ * 
+ * Entries only need to live until the token's own expiry - after that the signature check rejects it anyway.
+ */
+public interface RevocationStore {
+    
+    /**
+     * Record a revoked token ID until the token expires and notify every node
+     */
+    void revoke(String tokenId, Instant expiresAt);
+    
+    /**
+     * Authoritative revocation check
+     */
+    boolean isRevoked(String tokenId);
+    
+    /**
+     * All token IDs that are revoked and not yet expired
+     */
+    Set<String> liveTokenIds();
+    
+    /**
+     * Register a callback for revocations made on any node (including this one)
+     */
+    void subscribe(Consumer<String> listener);
+}
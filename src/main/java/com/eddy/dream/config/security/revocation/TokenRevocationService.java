@@ -0,0 +1,130 @@
+package com.eddy.dream.config.security.revocation;
+
+import com.eddy.dream.util.BloomFilter;
+import com.eddy.dream.util.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Token revocation with a per-node Bloom filter in front of the shared store
+ * 
+ * The Bloom filter answers "definitely not revoked" for almost every request without any I/O.
+ * Only a filter hit (revoked, or a false positive) goes to the store.
+ * Bloom filters cannot delete, so the filter is periodically rebuilt from the store's live IDs,
+ * which drops tokens that have expired in the meantime.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+    
+    private final RevocationStore revocationStore;
+    
+    private final long expectedInsertions;
+    
+    private final double falsePositiveRate;
+    
+    private final Counter storeLookups;
+    
+    private volatile BloomFilter bloomFilter;
+    
+    /**
+     * Filter being rebuilt - receives revocations made while the rebuild reads the store
+     */
+    private volatile BloomFilter pendingFilter;
+    
+    public TokenRevocationService(
+        RevocationStore revocationStore,
+        MeterRegistry meterRegistry,
+        @Value("${jwt.revocation.bloom.expected-insertions:100000}") long expectedInsertions,
+        @Value("${jwt.revocation.bloom.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.revocationStore = revocationStore;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.storeLookups = Counter.builder("jwt.revocation.store.lookups")
+            .description("Revocation checks that passed the Bloom filter and queried the store")
+            .register(meterRegistry);
+        Gauge.builder("jwt.revocation.bloom.entries", this, service -> service.bloomFilter.insertions())
+            .description("Token IDs in the local revocation Bloom filter")
+            .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void init() {
+        // Revocations from any node (including this one) land in the local filter
+        revocationStore.subscribe(this::addToFilter);
+        rebuild();
+    }
+    
+    /**
+     * Revoke a token until its expiry
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.getTokenId() == null) {
+            log.warn("Token of user {} has no ID and cannot be revoked", token.getSubject());
+            return;
+        }
+        // Store first: a concurrent rebuild either reads the ID from the store or receives it as pending
+        revocationStore.revoke(token.getTokenId(), token.getExpiration());
+        addToFilter(token.getTokenId());
+        log.info("Revoked token {} of user {}", token.getTokenId(), token.getSubject());
+    }
+    
+    /**
+     * Check if the token has been revoked
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        String tokenId = token.getTokenId();
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        storeLookups.increment();
+        return revocationStore.isRevoked(tokenId);
+    }
+    
+    /**
+     * Rebuild the Bloom filter from the live revoked IDs so expired entries fall out
+     */
+    @Scheduled(
+        initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+        fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}"
+    )
+    public void rebuild() {
+        try {
+            BloomFilter rebuilt = new BloomFilter(expectedInsertions, falsePositiveRate);
+            pendingFilter = rebuilt;
+            Set<String> liveTokenIds = revocationStore.liveTokenIds();
+            if (liveTokenIds.size() > expectedInsertions) {
+                // Outgrown the configured size - size for the actual volume instead
+                rebuilt = new BloomFilter(liveTokenIds.size() * 2L, falsePositiveRate);
+                pendingFilter = rebuilt;
+                liveTokenIds = revocationStore.liveTokenIds();
+            }
+            liveTokenIds.forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+            log.debug("Rebuilt revocation Bloom filter with {} token IDs", liveTokenIds.size());
+        } catch (Exception e) {
+            // Keep the current filter - it is a superset of the live IDs
+            log.error("Could not rebuild revocation Bloom filter: {}", e.getMessage());
+        } finally {
+            pendingFilter = null;
+        }
+    }
+    
+    private void addToFilter(String tokenId) {
+        bloomFilter.put(tokenId);
+        BloomFilter pending = pendingFilter;
+        if (pending != null) {
+            pending.put(tokenId);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.eddy.dream.controller;
+
+import com.eddy.dream.dto.response.ErrorResponse;
+import com.eddy.dream.dto.response.UserImportResult;
+import com.eddy.dream.dto.response.UserImportSummary;
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.service.UserExportService;
+import com.eddy.dream.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Admin Controller - Handles user administration (requires ROLE_ADMIN)
+ */
+@Tag(name = "Admin", description = "User administration APIs")
+@SecurityRequirement(name = "Bearer Authentication")
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+    
+    static final String TEXT_CSV_VALUE = "text/csv";
+    
+    private final UserImportService userImportService;
+    
+    private final UserExportService userExportService;
+    
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Bulk User Import
+     *
+     * POST /api/admin/users/import
+     *
+     * Body: NDJSON (one RegisterRequest-shaped object per line) or CSV with a header row
+     * (username,email,password[,passwordHash]). Both sides are streamed: one result line per input row,
+     * in input order, then the summary as the last line.
+     */
+    @Operation(
+        summary = "Bulk import users",
+        description = "Stream users as NDJSON or CSV (header: username,email,password,passwordHash). "
+            + "Responds with one NDJSON result per row, followed by a summary line."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import processed, per-row results streamed",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = UserImportResult.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Not authenticated",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Not an administrator",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PostMapping(
+        value = "/import",
+        consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void importUsers(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        InputStream body,
+        HttpServletResponse response
+    ) throws IOException {
+        UserImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+            ? UserImportService.Format.CSV
+            : UserImportService.Format.NDJSON;
+        log.info("Starting bulk user import ({})", format);
+        
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (SequenceWriter writer = objectMapper.writer()
+            .withRootValueSeparator("\n")
+            .writeValues(response.getOutputStream())) {
+            UserImportSummary summary = userImportService.importUsers(body, format, result -> write(writer, result));
+            writer.write(summary);
+        }
+    }
+    
+    /**
+     * Bulk User Export
+     *
+     * GET /api/admin/users/export?format=NDJSON|CSV
+     *
+     * Every user, oldest first, as NDJSON (one UserResponse per line) or CSV with a header row.
+     * Streamed while the rows are read, gzip-compressed when the client accepts it.
+     */
+    @Operation(
+        summary = "Bulk export users",
+        description = "Stream all users as NDJSON or CSV (format=NDJSON|CSV), oldest first. "
+            + "Sent gzip-compressed when the request has Accept-Encoding: gzip."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Users streamed",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = UserResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Not authenticated",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Not an administrator",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+        @Parameter(description = "Output format", example = "NDJSON")
+        @RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+        
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        log.info("Starting bulk user export ({}, gzip: {})", format, gzip);
+        
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024);
+                userExportService.exportUsers(compressed, format);
+                compressed.finish();
+            } else {
+                userExportService.exportUsers(output, format);
+            }
+        };
+        
+        String extension = format == UserExportService.Format.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(format == UserExportService.Format.CSV
+                ? MediaType.parseMediaType(TEXT_CSV_VALUE + ";charset=UTF-8")
+                : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("users." + extension)
+                .build()
+                .toString())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    /**
+     * gzip listed in Accept-Encoding, unless with q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    private static void write(SequenceWriter writer, Object value) {
+        try {
+            writer.write(value);
+        } catch (IOException e) {
+            // Client went away - stop the import
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.eddy.dream.dto.request.LoginRequest;
 import com.eddy.dream.dto.request.RegisterRequest;
 import com.eddy.dream.dto.response.AuthResponse;
 import com.eddy.dream.dto.response.ErrorResponse;
+import com.eddy.dream.exception.AuthenticationException;
 import com.eddy.dream.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,7 +23,7 @@ import org.springframework.web.bind.annotation.*;
 /**
  * Authentication Controller - Handles registration and login
  */
-@Tag(name = "Authentication", description = "Authentication management APIs - Register and Login")
+@Tag(name = "Authentication", description = "Authentication management APIs - Register, Login and Logout")
 @Slf4j
 @RestController
 @RequestMapping("/api/auth")
@@ -97,6 +99,40 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * User Logout - revokes the bearer token until it expires
+     * 
+     * POST /api/auth/logout
+     * 
+     * @param authorization Authorization header carrying the token to revoke
+     * @return No content
+     */
+    @Operation(
+        summary = "User logout",
+        description = "Revoke the bearer token from the Authorization header. The token is rejected on every node until it expires."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "204",
+            description = "Token revoked"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Missing, invalid or expired token",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new AuthenticationException("Missing bearer token");
+        }
+        authService.logout(authorization.substring(7));
+        return ResponseEntity.noContent().build();
+    }
+    
     /**
      * Health Check Endpoint
      * 
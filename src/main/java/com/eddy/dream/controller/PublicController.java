@@ -0,0 +1,64 @@
+package com.eddy.dream.controller;
+
+import com.eddy.dream.dto.response.ErrorResponse;
+import com.eddy.dream.dto.response.UserAvailabilityResponse;
+import com.eddy.dream.service.UserAvailabilityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Public Controller - Endpoints that need no authentication
+ */
+@Tag(name = "Public", description = "Public APIs - no authentication required")
+@Slf4j
+@RestController
+@RequestMapping("/api/public")
+@RequiredArgsConstructor
+public class PublicController {
+    
+    private final UserAvailabilityService userAvailabilityService;
+    
+    /**
+     * Check Username / Email Availability
+     * 
+     * GET /api/public/availability?username=alice&email=alice@example.com
+     * 
+     * @param username Username to check (optional)
+     * @param email Email to check (optional)
+     * @return Availability of the requested username and/or email
+     */
+    @Operation(
+        summary = "Check username / email availability",
+        description = "Tell whether a username and/or email can still be registered (case-insensitive). "
+            + "At least one of them is required. Registration itself still rejects a taken username or email."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Availability checked",
+            content = @Content(schema = @Schema(implementation = UserAvailabilityResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Neither username nor email given",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/availability")
+    public ResponseEntity<UserAvailabilityResponse> checkAvailability(
+        @RequestParam(required = false) String username,
+        @RequestParam(required = false) String email
+    ) {
+        log.debug("Checking availability, username: {}, email: {}", username, email);
+        UserAvailabilityResponse response = userAvailabilityService.checkAvailability(username, email);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,9 +1,13 @@
 package com.eddy.dream.controller;
 
+import com.eddy.dream.config.security.AuthenticatedUser;
 import com.eddy.dream.dto.request.UpdateUserRequest;
+import com.eddy.dream.dto.request.UserBatchRequest;
 import com.eddy.dream.dto.response.ErrorResponse;
 import com.eddy.dream.dto.response.PageResponse;
+import com.eddy.dream.dto.response.UserBatchResponse;
 import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.enums.CountStrategy;
 import com.eddy.dream.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -63,7 +67,10 @@ public class UserController {
         String username = authentication.getName();
         
         log.info("Getting current user information: {}", username);
-        UserResponse response = userService.getUserByUsername(username);
+        // The JWT filter's principal carries the ID - primary-key lookup, served once per request
+        UserResponse response = authentication.getPrincipal() instanceof AuthenticatedUser principal
+            ? userService.getCurrentUser(principal.getId())
+            : userService.getUserByUsername(username);
         
         return ResponseEntity.ok(response);
     }
@@ -104,18 +111,69 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Get Users by IDs and/or Usernames
+     * 
+     * POST /api/users/batch
+     * 
+     * @param request IDs and usernames to resolve (up to UserBatchRequest.MAX_SIZE of each)
+     * @return Users found and the keys that matched no user
+     */
+    @Operation(
+        summary = "Get users in batch",
+        description = "Resolve up to " + UserBatchRequest.MAX_SIZE + " IDs and " + UserBatchRequest.MAX_SIZE
+            + " usernames in one request. Users are returned in request order without duplicates; "
+            + "keys that match no user are listed in missingIds and missingUsernames."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lookup completed",
+            content = @Content(schema = @Schema(implementation = UserBatchResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No keys, too many keys or blank entries",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Not authenticated",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<UserBatchResponse> getUsers(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "User IDs and usernames",
+            required = true
+        )
+        @Valid @RequestBody UserBatchRequest request
+    ) {
+        log.info("Getting users in batch - ids: {}, usernames: {}",
+            request.getIds() != null ? request.getIds().size() : 0,
+            request.getUsernames() != null ? request.getUsernames().size() : 0);
+        UserBatchResponse response = userService.getUsers(request.getIds(), request.getUsernames());
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Get All Users with Pagination
      * 
-     * GET /api/users?page=0&size=10
+     * GET /api/users?page=0&size=10 (offset mode)
+     * GET /api/users?after={cursor}&size=10 (cursor mode - "after=" empty for the first page)
      * 
-     * @param page Page number (0-based)
+     * @param page Page number (0-based), offset mode
+     * @param after Cursor from the previous page's nextCursor; switches to cursor mode
      * @param size Page size
+     * @param count Count strategy for the totals, offset mode (null for the configured default)
      * @return Paginated list of users
      */
     @Operation(
         summary = "Get all users with pagination",
-        description = "Retrieve all users in the system with pagination support. Results are sorted by ID in descending order (newest first)."
+        description = "Retrieve all users in the system with pagination support. Results are sorted by ID in descending order (newest first). "
+            + "Pass 'after' (empty for the first page, then each nextCursor) for cursor mode: constant cost per page, no totals. "
+            + "In offset mode 'count' selects how totalElements is obtained; only EXACT runs COUNT(*) on every request."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -134,11 +192,21 @@ public class UserController {
         @Parameter(description = "Page number (0-based)", example = "0")
         @RequestParam(defaultValue = "0") int page,
         
-        @Parameter(description = "Page size", example = "10")
-        @RequestParam(defaultValue = "10") int size
+        @Parameter(description = "Cursor from the previous page's nextCursor (empty for the first page)")
+        @RequestParam(required = false) String after,
+        
+        @Parameter(description = "Page size (cursor mode: at most " + UserService.MAX_PAGE_SIZE + ")", example = "10")
+        @RequestParam(defaultValue = "10") int size,
+        
+        @Parameter(description = "How offset mode counts the total: EXACT, CACHED, ESTIMATED or NONE (default from user.list.count-strategy)")
+        @RequestParam(required = false) CountStrategy count
     ) {
-        log.info("Getting all users with pagination - page: {}, size: {}", page, size);
-        PageResponse<UserResponse> users = userService.getAllUsers(page, size);
+        if (after != null) {
+            log.info("Getting users after cursor - after: {}, size: {}", after, size);
+            return ResponseEntity.ok(userService.getUsersAfter(after, size));
+        }
+        log.info("Getting all users with pagination - page: {}, size: {}, count: {}", page, size, count);
+        PageResponse<UserResponse> users = userService.getAllUsers(page, size, count);
         return ResponseEntity.ok(users);
     }
     
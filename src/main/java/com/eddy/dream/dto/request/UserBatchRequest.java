@@ -0,0 +1,34 @@
+package com.eddy.dream.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+/**
+ * Users to resolve in one call, by ID and/or username
+ */
+@Schema(description = "Batch user lookup request")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchRequest {
+    
+    public static final int MAX_SIZE = 100;
+    
+    @Schema(description = "User IDs", example = "[1, 2, 3]")
+    @Size(max = MAX_SIZE, message = "At most " + MAX_SIZE + " IDs per request")
+    private List<@NotNull(message = "ID cannot be null") Long> ids;
+    
+    @Schema(description = "Usernames", example = "[\"alice\", \"bob\"]")
+    @Size(max = MAX_SIZE, message = "At most " + MAX_SIZE + " usernames per request")
+    private List<@NotBlank(message = "Username cannot be empty") String> usernames;
+}
@@ -0,0 +1,31 @@
+package com.eddy.dream.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * One user of a bulk import (NDJSON object or CSV record)
+ * Validated with the RegisterRequest constraints; a partner may send an existing BCrypt hash instead of a password.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRow {
+    
+    private String username;
+    
+    private String email;
+    
+    private String password;
+    
+    /**
+     * BCrypt hash stored as-is; takes precedence over password
+     */
+    private String passwordHash;
+}
@@ -1,5 +1,7 @@
 package com.eddy.dream.dto.response;
 
+import com.eddy.dream.enums.CountStrategy;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,11 +9,14 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
-
+/**
+ * One page of results - offset mode (page number and totals) or cursor mode (nextCursor, no totals)
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     
     /**
@@ -20,9 +25,9 @@ public class PageResponse<T> {
     private List<T> content;
     
     /**
-     * Current page number (0-based)
+     * Current page number (0-based), offset mode only
      */
-    private int pageNumber;
+    private Integer pageNumber;
     
     /**
      * Page size
@@ -30,14 +35,19 @@ public class PageResponse<T> {
     private int pageSize;
     
     /**
-     * Total number of elements
+     * Total number of elements, offset mode only (omitted when not counted)
+     */
+    private Long totalElements;
+    
+    /**
+     * Total number of pages, offset mode only (omitted when not counted)
      */
-    private long totalElements;
+    private Integer totalPages;
     
     /**
-     * Total number of pages
+     * How the totals were obtained - only EXACT totals are guaranteed to be exact, offset mode only
      */
-    private int totalPages;
+    private CountStrategy countStrategy;
     
     /**
      * Is this the first page?
@@ -58,5 +68,9 @@ public class PageResponse<T> {
      * Does it have previous page?
      */
     private boolean hasPrevious;
+    
+    /**
+     * Cursor for the next page (pass as "after"), null on the last page
+     */
+    private String nextCursor;
 }
-
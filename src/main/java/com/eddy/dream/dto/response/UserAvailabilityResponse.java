@@ -0,0 +1,27 @@
+package com.eddy.dream.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Whether a username and/or email can still be registered - only the requested fields are set
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserAvailabilityResponse {
+    
+    private String username;
+    
+    private Boolean usernameAvailable;
+    
+    private String email;
+    
+    private Boolean emailAvailable;
+}
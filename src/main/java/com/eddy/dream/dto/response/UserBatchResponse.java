@@ -0,0 +1,26 @@
+package com.eddy.dream.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+/**
+ * Result of a batch user lookup: the users found (IDs first, then usernames, in request order, without duplicates)
+ * and the requested keys that matched no user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResponse {
+    
+    private List<UserResponse> users;
+    
+    private List<Long> missingIds;
+    
+    private List<String> missingUsernames;
+}
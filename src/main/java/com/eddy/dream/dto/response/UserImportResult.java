@@ -0,0 +1,39 @@
+package com.eddy.dream.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+/**
+ * Outcome of one imported row, streamed back as one NDJSON line
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE,
+        FAILED
+    }
+    
+    /**
+     * 1-based position of the record in the input (CSV header and blank lines not counted)
+     */
+    private long row;
+    
+    private String username;
+    
+    private Status status;
+    
+    private List<String> errors;
+}
@@ -0,0 +1,31 @@
+package com.eddy.dream.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Totals of a bulk import, sent as the last NDJSON line
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportSummary {
+    
+    private long total;
+    
+    private long created;
+    
+    private long invalid;
+    
+    private long duplicate;
+    
+    private long failed;
+    
+    private long elapsedMillis;
+    
+    private double rowsPerSecond;
+}
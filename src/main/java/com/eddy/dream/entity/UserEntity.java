@@ -1,34 +1,51 @@
 package com.eddy.dream.entity;
 
+import com.eddy.dream.config.HibernateCacheConfig;
+import com.eddy.dream.config.id.GeneratedUserId;
 import com.eddy.dream.enums.UserStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
 
 @Entity
+// Uniqueness comes from the named indexes only; services translate violations of them by name
 @Table(name = "users", indexes = {
     @Index(name = "idx_username", columnList = "username", unique = true),
     @Index(name = "idx_email", columnList = "email", unique = true)
 })
+// Second-level cache regions (see HibernateCacheConfig), ignored when the cache is disabled
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
+@NaturalIdCache(region = HibernateCacheConfig.USER_NATURAL_ID_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserEntity {
     
+    /**
+     * Assigned before the INSERT (user.id.strategy) so inserts can be batched
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedUserId
     private Long id;
     
-    @Column(name = "username", nullable = false, unique = true, length = 50)
+    /**
+     * Immutable natural ID - lookups by username resolve through the natural-id cache
+     */
+    @NaturalId
+    @Column(name = "username", nullable = false, length = 50)
     private String username;
     
-    @Column(name = "email", nullable = false, unique = true, length = 100)
+    @Column(name = "email", nullable = false, length = 100)
     private String email;
     
     @Column(name = "phone", length = 20)
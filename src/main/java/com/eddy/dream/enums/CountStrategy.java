@@ -0,0 +1,26 @@
+package com.eddy.dream.enums;
+
+/**
+ * How a paginated listing obtains its total number of elements
+ */
+public enum CountStrategy {
+    /**
+     * Exact - SELECT COUNT(*) with every page
+     */
+    EXACT,
+    
+    /**
+     * Cached - exact count refreshed after a TTL, kept current by creations in between
+     */
+    CACHED,
+    
+    /**
+     * Estimated - row count from the database's table statistics, no scan
+     */
+    ESTIMATED,
+    
+    /**
+     * None - no totals, one extra row decides whether there is a next page
+     */
+    NONE
+}
@@ -0,0 +1,37 @@
+package com.eddy.dream.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Domain event published whenever a user row is modified
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserChangedEvent {
+    
+    private final Long userId;
+    
+    private final String username;
+    
+    private final ChangeType changeType;
+    
+    public enum ChangeType {
+        /**
+         * Profile fields (email, phone) changed
+         */
+        UPDATED,
+        
+        /**
+         * Account status changed (lock, deactivate, activate)
+         */
+        STATUS_CHANGED,
+        
+        /**
+         * Stored password hash replaced (e.g. rehash on login)
+         */
+        CREDENTIALS_CHANGED
+    }
+}
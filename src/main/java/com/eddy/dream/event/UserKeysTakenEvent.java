@@ -0,0 +1,21 @@
+package com.eddy.dream.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Domain event published after usernames or emails are put in use (registration, bulk import, email change)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserKeysTakenEvent {
+
+    /**
+     * Usernames and emails, as stored
+     */
+    private final List<String> keys;
+}
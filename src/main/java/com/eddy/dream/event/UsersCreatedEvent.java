@@ -0,0 +1,19 @@
+package com.eddy.dream.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Domain event published after new user rows are stored (registration, bulk import)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UsersCreatedEvent {
+    
+    /**
+     * Number of users created
+     */
+    private final int count;
+}
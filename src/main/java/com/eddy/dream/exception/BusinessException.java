@@ -22,5 +22,13 @@ public class BusinessException extends RuntimeException {
         super(message, cause);
         this.code = code;
     }
+    
+    /**
+     * For expected outcomes whose stack trace is never logged - skips the stack walk on construction
+     */
+    protected BusinessException(String code, String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.code = code;
+    }
 }
 
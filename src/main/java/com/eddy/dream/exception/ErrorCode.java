@@ -44,6 +44,9 @@ public class ErrorCode {
     public static final String EXTERNAL_SERVICE_ERROR = "SERVICE_UNAVAILABLE";
     public static final String EXTERNAL_SERVICE_ERROR_INTERNAL = "SRV003";
     
+    public static final String SERVICE_BUSY = "SERVICE_BUSY";
+    public static final String SERVICE_BUSY_INTERNAL = "SRV004";
+    
     // User-specific errors
     public static final String USER_NOT_FOUND = "USER_NOT_FOUND";
     public static final String USER_NOT_FOUND_INTERNAL = "USR001";
@@ -3,6 +3,7 @@ package com.eddy.dream.exception;
 import com.eddy.dream.dto.response.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -139,6 +140,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
     
+    /**
+     * Handle Service Busy Exception
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusyException(
+            ServiceBusyException ex,
+            HttpServletRequest request) {
+        String traceId = generateTraceId();
+        log.warn("[{}] Service busy: {}", traceId, ex.getMessage());
+        
+        ErrorResponse response = ErrorResponse.builder()
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .code(ErrorCode.SERVICE_BUSY)
+            .internalCode(ErrorCode.SERVICE_BUSY_INTERNAL)
+            .message(ex.getMessage())
+            .path(request.getRequestURI())
+            .timestamp(LocalDateTime.now())
+            .traceId(traceId)
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(response);
+    }
+    
     /**
      * Handle Validation Exception
      */
@@ -1,15 +1,17 @@
 package com.eddy.dream.exception;
 
-
+/**
+ * Mapped to 404 and logged by message only, so no stack trace is captured (unknown IDs are a hot path for bots)
+ */
 public class ResourceNotFoundException extends BusinessException {
     
     public ResourceNotFoundException(String message) {
-        super("RESOURCE_NOT_FOUND", message);
+        super("RESOURCE_NOT_FOUND", message, false);
     }
     
     public ResourceNotFoundException(String resourceName, Object id) {
         super("RESOURCE_NOT_FOUND", 
-            String.format("%s not found, ID: %s", resourceName, id));
+            String.format("%s not found, ID: %s", resourceName, id), false);
     }
 }
 
@@ -0,0 +1,18 @@
+package com.eddy.dream.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource (e.g. the password hashing executor) is saturated
+ * Mapped to 429 Too Many Requests with a Retry-After header
+ */
+@Getter
+public class ServiceBusyException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
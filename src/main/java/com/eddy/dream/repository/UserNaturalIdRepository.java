@@ -0,0 +1,30 @@
+package com.eddy.dream.repository;
+
+import com.eddy.dream.entity.UserEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * User loads through the Hibernate session API, so they are served from the second-level cache when it is enabled
+ * (the derived or JPQL equivalents always query the database)
+ */
+public interface UserNaturalIdRepository {
+    
+    /**
+     * Natural-id load - username to ID through the natural-id cache, then the user through the entity cache
+     */
+    Optional<UserEntity> findByUsername(String username);
+    
+    /**
+     * Users by ID - cached users are taken from the cache, the rest are read in one IN query
+     */
+    List<UserEntity> loadAllById(Collection<Long> ids);
+    
+    /**
+     * Users by username, in no particular order - always one IN query (Hibernate does not consult the natural-id
+     * cache for multi-loads), but the loaded users fill the caches for single lookups
+     */
+    List<UserEntity> loadAllByUsername(Collection<String> usernames);
+}
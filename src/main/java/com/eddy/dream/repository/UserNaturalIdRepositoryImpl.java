@@ -0,0 +1,57 @@
+package com.eddy.dream.repository;
+
+import com.eddy.dream.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Session-level loads behind UserNaturalIdRepository
+ * Transactional, so the unwrapped session stays open for the whole load
+ */
+@Transactional(readOnly = true)
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<UserEntity> findByUsername(String username) {
+        return session().bySimpleNaturalId(UserEntity.class).loadOptional(username);
+    }
+    
+    @Override
+    public List<UserEntity> loadAllById(Collection<Long> ids) {
+        // Multi-loads only look into the second-level cache with an explicit cache mode
+        return withoutMisses(session().byMultipleIds(UserEntity.class)
+            .with(CacheMode.NORMAL)
+            .multiLoad(List.copyOf(ids)));
+    }
+    
+    @Override
+    public List<UserEntity> loadAllByUsername(Collection<String> usernames) {
+        // Ordered return is not supported for natural IDs; callers match results by username
+        return withoutMisses(session().byMultipleNaturalId(UserEntity.class)
+            .with(CacheMode.NORMAL)
+            .enableOrderedReturn(false)
+            .multiLoad(List.copyOf(usernames)));
+    }
+    
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+    
+    /**
+     * Multi-loads return null for keys without a user
+     */
+    private static List<UserEntity> withoutMisses(List<UserEntity> users) {
+        return users.stream().filter(Objects::nonNull).toList();
+    }
+}
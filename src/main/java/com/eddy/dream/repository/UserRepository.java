@@ -1,21 +1,93 @@
 package com.eddy.dream.repository;
 
+import com.eddy.dream.dto.response.UserResponse;
 import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.repository.projection.PasswordHashPrefixCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
-
-    Optional<UserEntity> findByUsername(String username);
-
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserNaturalIdRepository {
+    
+    /**
+     * Constructor expression for the listings: selects straight into UserResponse,
+     * so no managed entity, no dirty-checking snapshot and no mapping step
+     */
+    String USER_RESPONSE = "SELECT new com.eddy.dream.dto.response.UserResponse(u.id, u.username, u.email, u.phone, "
+        + "CAST(u.status AS String), u.createdAt, u.lastLoginAt) FROM UserEntity u";
+    
+    /**
+     * Cacheable query - the query cache keeps the matching ID, the user itself comes from the entity cache
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserEntity> findByEmail(String email);
-
+    
+    /**
+     * Page of users as response DTOs, with a count query
+     */
+    @Query(value = USER_RESPONSE, countQuery = "SELECT COUNT(u) FROM UserEntity u")
+    Page<UserResponse> findResponses(Pageable pageable);
+    
+    /**
+     * Page of users as response DTOs without a count query - reads one extra row to tell whether a next page exists
+     */
+    @Query(USER_RESPONSE)
+    Slice<UserResponse> findResponseSlice(Pageable pageable);
+    
+    /**
+     * Newest users first - first page of a keyset listing
+     */
+    @Query(USER_RESPONSE + " ORDER BY u.id DESC")
+    List<UserResponse> findNewestResponses(Limit limit);
+    
+    /**
+     * Users older than the given ID, newest first - seeks through the primary key, no OFFSET
+     */
+    @Query(USER_RESPONSE + " WHERE u.id < :id ORDER BY u.id DESC")
+    List<UserResponse> findResponsesBefore(@Param("id") Long id, Limit limit);
+    
     boolean existsByUsername(String username);
-
+    
     boolean existsByEmail(String email);
+    
+    /**
+     * Replace the stored password hash (rehash on login)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+    
+    /**
+     * Record a successful login - single UPDATE, no entity load
+     * Used when the last-login buffer is disabled or full
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.lastLoginAt = :loginAt, u.updatedAt = :loginAt WHERE u.id = :id")
+    int recordLogin(@Param("id") Long id, @Param("loginAt") LocalDateTime loginAt);
+    
+    /**
+     * Stored hashes grouped by their "$version$cost$" prefix
+     */
+    @Query("SELECT new com.eddy.dream.repository.projection.PasswordHashPrefixCount(SUBSTRING(u.password, 1, 7), COUNT(u)) "
+        + "FROM UserEntity u GROUP BY SUBSTRING(u.password, 1, 7)")
+    List<PasswordHashPrefixCount> countPasswordHashPrefixes();
 
 }
 
@@ -0,0 +1,7 @@
+package com.eddy.dream.repository.projection;
+
+/**
+ * Number of stored password hashes per hash prefix, e.g. "$2a$10$"
+ */
+public record PasswordHashPrefixCount(String prefix, Long count) {
+}
@@ -0,0 +1,10 @@
+package com.eddy.dream.repository.projection;
+
+import com.eddy.dream.enums.UserStatus;
+
+/**
+ * Read-only view of the columns the authentication path needs
+ * Cached by UserDetailsServiceImpl instead of the entity, so cached principals carry no profile data
+ */
+public record UserCredentials(Long id, String username, String password, UserStatus status) {
+}
@@ -10,5 +10,7 @@ public interface AuthService {
     AuthResponse register(RegisterRequest request);
 
     AuthResponse login(LoginRequest request);
+
+    void logout(String token);
 }
 
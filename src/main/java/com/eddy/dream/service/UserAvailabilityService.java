@@ -0,0 +1,11 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.dto.response.UserAvailabilityResponse;
+
+public interface UserAvailabilityService {
+
+    /**
+     * Whether the username and/or email (either may be null, not both) are still free, case-insensitive
+     */
+    UserAvailabilityResponse checkAvailability(String username, String email);
+}
@@ -0,0 +1,17 @@
+package com.eddy.dream.service;
+
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Write every user to the stream, oldest first, and return the number written
+     * The stream is flushed but left open
+     */
+    long exportUsers(OutputStream output, Format format);
+}
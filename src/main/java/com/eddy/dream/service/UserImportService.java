@@ -0,0 +1,20 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.dto.response.UserImportResult;
+import com.eddy.dream.dto.response.UserImportSummary;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface UserImportService {
+
+    enum Format {
+        NDJSON,
+        CSV
+    }
+
+    /**
+     * Import users from a stream, reporting every row to the consumer in input order
+     */
+    UserImportSummary importUsers(InputStream input, Format format, Consumer<UserImportResult> results);
+}
@@ -2,20 +2,49 @@ package com.eddy.dream.service;
 
 import com.eddy.dream.dto.request.UpdateUserRequest;
 import com.eddy.dream.dto.response.PageResponse;
+import com.eddy.dream.dto.response.UserBatchResponse;
 import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.enums.CountStrategy;
+import com.eddy.dream.enums.UserStatus;
 
 import java.util.List;
 
 public interface UserService {
 
+    /**
+     * Largest page the keyset listing returns
+     */
+    int MAX_PAGE_SIZE = 100;
+
     UserResponse getUserById(Long id);
 
     UserResponse getUserByUsername(String username);
 
-    PageResponse<UserResponse> getAllUsers(int page, int size);
+    /**
+     * The authenticated user, by the principal's ID - read at most once per request
+     */
+    UserResponse getCurrentUser(Long id);
+
+    /**
+     * Batch lookup by IDs and/or usernames (either may be null), one query per key type; unmatched keys are reported as missing
+     */
+    UserBatchResponse getUsers(List<Long> ids, List<String> usernames);
+
+    /**
+     * Offset page, newest first, with totals per the count strategy (null for the configured default)
+     */
+    PageResponse<UserResponse> getAllUsers(int page, int size, CountStrategy countStrategy);
+
+    /**
+     * Keyset page, newest first: users after the cursor (null or empty for the first page), without a total count
+     * Size must be between 1 and MAX_PAGE_SIZE
+     */
+    PageResponse<UserResponse> getUsersAfter(String cursor, int size);
 
     void updateLastLogin(String username);
 
     UserResponse updateUser(Long id, UpdateUserRequest request);
+
+    UserResponse updateStatus(Long id, UserStatus status);
 }
 
@@ -0,0 +1,136 @@
+package com.eddy.dream.service.cache;
+
+import com.eddy.dream.dto.response.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Process-local user store - single node deployments and tests (stands in for Redis; nodes sharing
+ * one instance behave like nodes sharing one Redis)
+ */
+@Component
+@ConditionalOnProperty(name = "user.response-cache.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUserCacheStore implements UserCacheStore {
+
+    private final Cache<Long, UserResponse> users;
+
+    private final Cache<String, Long> ids;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final List<Consumer<Collection<Long>>> listeners = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<UserChange>> changedListeners = new CopyOnWriteArrayList<>();
+
+    private final List<BiConsumer<Long, String>> createdListeners = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<Collection<String>>> takenListeners = new CopyOnWriteArrayList<>();
+
+    public InMemoryUserCacheStore(
+        @Value("${user.response-cache.l2.maximum-size:100000}") long maximumSize,
+        @Value("${user.response-cache.l2.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+        this.ids = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    @Override
+    public UserResponse get(Long id) {
+        return users.getIfPresent(id);
+    }
+
+    @Override
+    public Map<Long, UserResponse> getAll(Collection<Long> ids) {
+        return users.getAllPresent(ids);
+    }
+
+    @Override
+    public Long getId(String usernameKey) {
+        return ids.getIfPresent(usernameKey);
+    }
+
+    @Override
+    public Map<String, Long> getIds(Collection<String> usernameKeys) {
+        return ids.getAllPresent(usernameKeys);
+    }
+
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public void put(UserResponse user, long generation) {
+        // Checked and written under the same lock invalidate() advances the generation under
+        synchronized (this) {
+            if (this.generation.get() != generation) {
+                return;
+            }
+            users.put(user.getId(), user);
+            ids.put(user.getUsername().toLowerCase(Locale.ROOT), user.getId());
+        }
+    }
+
+    @Override
+    public void invalidate(Collection<Long> ids) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            users.invalidateAll(ids);
+        }
+        listeners.forEach(listener -> listener.accept(ids));
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<Long>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void publishChanged(UserChange change) {
+        changedListeners.forEach(listener -> listener.accept(change));
+    }
+
+    @Override
+    public void subscribeChanged(Consumer<UserChange> listener) {
+        changedListeners.add(listener);
+    }
+
+    @Override
+    public void publishCreated(Long id, String username) {
+        createdListeners.forEach(listener -> listener.accept(id, username));
+    }
+
+    @Override
+    public void subscribeCreated(BiConsumer<Long, String> listener) {
+        createdListeners.add(listener);
+    }
+
+    @Override
+    public void publishTaken(Collection<String> keys) {
+        takenListeners.forEach(listener -> listener.accept(keys));
+    }
+
+    @Override
+    public void subscribeTaken(Consumer<Collection<String>> listener) {
+        takenListeners.add(listener);
+    }
+}
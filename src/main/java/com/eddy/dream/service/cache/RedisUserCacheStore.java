@@ -0,0 +1,229 @@
+package com.eddy.dream.service.cache;
+
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.event.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Redis user store shared by all nodes
+ *
+ * Users are JSON values under their ID, usernames map to the ID; both expire after the TTL.
+ * The generation is a counter key incremented by every invalidation; a Lua script compares it and writes
+ * the user in one step, so no invalidation can slip in between. Invalidations delete the users and broadcast their IDs (comma-separated) on a pub/sub channel,
+ * so every node can drop them from its own cache. New users are broadcast as "id:username" on a second channel,
+ * usernames and emails put in use one per line on a third, user changes as
+ * "origin:changeType:changedAtMillis:id:username" on a fourth.
+ */
+@Component
+@ConditionalOnProperty(name = "user.response-cache.store", havingValue = "redis")
+public class RedisUserCacheStore implements UserCacheStore {
+
+    static final String ID_KEY_PREFIX = "dream:user:id:";
+    static final String USERNAME_KEY_PREFIX = "dream:user:username:";
+    static final String CHANNEL = "dream:user:invalidations";
+    static final String CREATED_CHANNEL = "dream:user:created";
+    static final String TAKEN_CHANNEL = "dream:user:taken";
+    static final String CHANGED_CHANNEL = "dream:user:changed";
+    static final String GENERATION_KEY = "dream:user:generation";
+
+    /**
+     * KEYS: generation, ID key, username key; ARGV: expected generation, JSON, ID, TTL in seconds
+     */
+    static final RedisScript<Long> PUT_SCRIPT = RedisScript.of("""
+        if (redis.call('GET', KEYS[1]) or '0') ~= ARGV[1] then
+            return 0
+        end
+        redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[4])
+        redis.call('SET', KEYS[3], ARGV[3], 'EX', ARGV[4])
+        return 1
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration ttl;
+
+    public RedisUserCacheStore(
+        StringRedisTemplate redisTemplate,
+        RedisMessageListenerContainer listenerContainer,
+        ObjectMapper objectMapper,
+        @Value("${user.response-cache.l2.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    @Override
+    public UserResponse get(Long id) {
+        String json = redisTemplate.opsForValue().get(ID_KEY_PREFIX + id);
+        return json != null ? read(id, json) : null;
+    }
+
+    @Override
+    public Map<Long, UserResponse> getAll(Collection<Long> ids) {
+        // One MGET; values come back in key order, null for missing keys
+        List<Long> keys = List.copyOf(ids);
+        List<String> values = redisTemplate.opsForValue().multiGet(keys.stream().map(id -> ID_KEY_PREFIX + id).toList());
+        Map<Long, UserResponse> users = new HashMap<>();
+        for (int i = 0; values != null && i < keys.size(); i++) {
+            if (values.get(i) != null) {
+                users.put(keys.get(i), read(keys.get(i), values.get(i)));
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public Long getId(String usernameKey) {
+        String id = redisTemplate.opsForValue().get(USERNAME_KEY_PREFIX + usernameKey);
+        return id != null ? Long.valueOf(id) : null;
+    }
+
+    @Override
+    public Map<String, Long> getIds(Collection<String> usernameKeys) {
+        List<String> keys = List.copyOf(usernameKeys);
+        List<String> values = redisTemplate.opsForValue().multiGet(
+            keys.stream().map(key -> USERNAME_KEY_PREFIX + key).toList());
+        Map<String, Long> ids = new HashMap<>();
+        for (int i = 0; values != null && i < keys.size(); i++) {
+            if (values.get(i) != null) {
+                ids.put(keys.get(i), Long.valueOf(values.get(i)));
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public long generation() {
+        String generation = redisTemplate.opsForValue().get(GENERATION_KEY);
+        return generation != null ? Long.parseLong(generation) : 0;
+    }
+
+    @Override
+    public void put(UserResponse user, long generation) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot cache user " + user.getId() + ": " + e.getOriginalMessage(), e);
+        }
+        redisTemplate.execute(
+            PUT_SCRIPT,
+            List.of(GENERATION_KEY, ID_KEY_PREFIX + user.getId(),
+                USERNAME_KEY_PREFIX + user.getUsername().toLowerCase(Locale.ROOT)),
+            String.valueOf(generation), json, user.getId().toString(), String.valueOf(ttl.toSeconds())
+        );
+    }
+
+    @Override
+    public void invalidate(Collection<Long> ids) {
+        // Advanced before the delete - a put that read the old generation can no longer land afterwards
+        redisTemplate.opsForValue().increment(GENERATION_KEY);
+        redisTemplate.delete(ids.stream().map(id -> ID_KEY_PREFIX + id).toList());
+        redisTemplate.convertAndSend(CHANNEL, ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<Long>> listener) {
+        listenerContainer.addMessageListener(
+            (message, pattern) -> listener.accept(
+                Arrays.stream(new String(message.getBody(), StandardCharsets.UTF_8).split(","))
+                    .map(Long::valueOf)
+                    .toList()
+            ),
+            new ChannelTopic(CHANNEL)
+        );
+    }
+
+    @Override
+    public void publishChanged(UserChange change) {
+        redisTemplate.convertAndSend(CHANGED_CHANNEL, String.join(":",
+            change.origin(), change.changeType().name(), String.valueOf(change.changedAt().toEpochMilli()),
+            change.userId().toString(), change.username()));
+    }
+
+    @Override
+    public void subscribeChanged(Consumer<UserChange> listener) {
+        listenerContainer.addMessageListener(
+            (message, pattern) -> {
+                // The username comes last, so it may contain the separator
+                String[] fields = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 5);
+                listener.accept(new UserChange(
+                    fields[0],
+                    Long.valueOf(fields[3]),
+                    fields[4],
+                    UserChangedEvent.ChangeType.valueOf(fields[1]),
+                    Instant.ofEpochMilli(Long.parseLong(fields[2]))
+                ));
+            },
+            new ChannelTopic(CHANGED_CHANNEL)
+        );
+    }
+
+    @Override
+    public void publishCreated(Long id, String username) {
+        redisTemplate.convertAndSend(CREATED_CHANNEL, id + ":" + username);
+    }
+
+    @Override
+    public void subscribeCreated(BiConsumer<Long, String> listener) {
+        listenerContainer.addMessageListener(
+            (message, pattern) -> {
+                String body = new String(message.getBody(), StandardCharsets.UTF_8);
+                int separator = body.indexOf(':');
+                listener.accept(Long.valueOf(body.substring(0, separator)), body.substring(separator + 1));
+            },
+            new ChannelTopic(CREATED_CHANNEL)
+        );
+    }
+
+    @Override
+    public void publishTaken(Collection<String> keys) {
+        // Neither usernames nor (validated) emails contain line breaks
+        redisTemplate.convertAndSend(TAKEN_CHANNEL, String.join("\n", keys));
+    }
+
+    @Override
+    public void subscribeTaken(Consumer<Collection<String>> listener) {
+        listenerContainer.addMessageListener(
+            (message, pattern) -> listener.accept(
+                List.of(new String(message.getBody(), StandardCharsets.UTF_8).split("\n"))
+            ),
+            new ChannelTopic(TAKEN_CHANNEL)
+        );
+    }
+
+    private UserResponse read(Long id, String json) {
+        try {
+            return objectMapper.readValue(json, UserResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable cached user " + id + ": " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.eddy.dream.service.cache;
+
+import com.eddy.dream.dto.response.UserResponse;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Shared (second-level) store of UserResponse snapshots, by ID, plus the username to ID mapping,
+ * and the channel nodes use to tell each other about invalidated, changed and newly created users and about
+ * usernames and emails put in use
+ *
+ * Entries expire after the configured TTL. Usernames never change, so the username mapping
+ * is never invalidated, only the snapshot behind it.
+ *
+ * Every invalidation advances a store-wide generation. A caller reads it before loading a user and passes it
+ * to put(), which then skips the write if any user was invalidated meanwhile - the load may predate the write
+ * behind that invalidation, and the invalidating node's broadcast may not have reached the caller yet.
+ */
+public interface UserCacheStore {
+
+    /**
+     * Cached user, or null
+     */
+    UserResponse get(Long id);
+
+    /**
+     * Cached users among the given IDs, by ID
+     */
+    Map<Long, UserResponse> getAll(Collection<Long> ids);
+
+    /**
+     * ID cached for the (lower-cased) username, or null
+     */
+    Long getId(String usernameKey);
+
+    /**
+     * IDs cached for the given (lower-cased) usernames, by username
+     */
+    Map<String, Long> getIds(Collection<String> usernameKeys);
+
+    /**
+     * Current invalidation generation, to read before loading a user
+     */
+    long generation();
+
+    /**
+     * Store the user under its ID and its lower-cased username, unless the generation has moved on
+     * since the given one was read
+     */
+    void put(UserResponse user, long generation);
+
+    /**
+     * Remove the users, advance the generation and notify every node (including this one)
+     */
+    void invalidate(Collection<Long> ids);
+
+    /**
+     * Register a callback for invalidations made on any node (including this one)
+     */
+    void subscribe(Consumer<Collection<Long>> listener);
+
+    /**
+     * Notify every node (including this one) of a committed user change
+     */
+    void publishChanged(UserChange change);
+
+    /**
+     * Register a callback for user changes committed on any node (including this one)
+     */
+    void subscribeChanged(Consumer<UserChange> listener);
+
+    /**
+     * Notify every node (including this one) that a user with this ID and username now exists
+     */
+    void publishCreated(Long id, String username);
+
+    /**
+     * Register a callback for users created on any node (including this one)
+     */
+    void subscribeCreated(BiConsumer<Long, String> listener);
+
+    /**
+     * Notify every node (including this one) that these (lower-cased) usernames and emails are now in use
+     */
+    void publishTaken(Collection<String> keys);
+
+    /**
+     * Register a callback for usernames and emails put in use on any node (including this one)
+     */
+    void subscribeTaken(Consumer<Collection<String>> listener);
+}
@@ -0,0 +1,20 @@
+package com.eddy.dream.service.cache;
+
+import com.eddy.dream.event.UserChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * A committed user change as broadcast between nodes
+ *
+ * @param origin     ID of the broadcasting node
+ * @param changedAt  when the change was committed, by the broadcasting node's clock
+ */
+public record UserChange(
+    String origin,
+    Long userId,
+    String username,
+    UserChangedEvent.ChangeType changeType,
+    Instant changedAt
+) {
+}
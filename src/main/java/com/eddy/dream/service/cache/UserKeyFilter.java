@@ -0,0 +1,192 @@
+package com.eddy.dream.service.cache;
+
+import com.eddy.dream.event.UserKeysTakenEvent;
+import com.eddy.dream.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Per-node Bloom filter over every username and email in use
+ *
+ * Keys are folded as in UserKeys, which approximates the unique indexes' collation; emails and usernames share
+ * one filter, an email always has an '@' and a username never does. mightBeTaken() == false means no user has
+ * the key, answered without I/O; only a "maybe" needs the unique index. Keys UserKeys does not cover (non-ASCII
+ * once folded) are always "maybe" - the collation may equate them with stored values under a different key.
+ *
+ * The filter is built by streaming the users table once the application is ready. Keys put in use on any node
+ * are added once their transaction commits. Bloom filters cannot delete, so keys freed by an email change stay
+ * "maybe" until the periodic rebuild, which also re-sizes the filter when the table has outgrown it.
+ * Until the first build succeeds every key is "maybe".
+ */
+@Slf4j
+@Component
+public class UserKeyFilter {
+
+    static final String KEYS_SQL = "SELECT username, email FROM users";
+
+    static final String COUNT_SQL = "SELECT COUNT(*) FROM users";
+
+    /**
+     * Stands in for the filter in the gauges until the first build
+     */
+    private static final BloomFilter EMPTY = new BloomFilter(1, 0.5);
+
+    /**
+     * Own template - the fetch size applies to the key query only
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UserCacheStore store;
+
+    private final boolean enabled;
+
+    private final long expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    /**
+     * Null until the first build
+     */
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Filter being rebuilt - receives keys taken while the rebuild reads the table
+     */
+    private volatile BloomFilter pendingFilter;
+
+    public UserKeyFilter(
+        JdbcTemplate jdbcTemplate,
+        UserCacheStore store,
+        MeterRegistry meterRegistry,
+        @Value("${user.key-filter.enabled:true}") boolean enabled,
+        @Value("${user.key-filter.expected-insertions:1000000}") long expectedInsertions,
+        @Value("${user.key-filter.false-positive-rate:0.01}") double falsePositiveRate,
+        @Value("${user.key-filter.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.store = store;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        Gauge.builder("user.keys.bloom.entries", this, filter -> filter.current().insertions())
+            .description("Usernames and emails in the local Bloom filter")
+            .register(meterRegistry);
+        Gauge.builder("user.keys.bloom.expected.false.positive.rate", this,
+                filter -> filter.current().expectedFalsePositiveRate())
+            .description("Estimated false-positive probability of the local Bloom filter at its current fill")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Keys taken on any node (including this one) land in the local filter
+        store.subscribeTaken(keys -> keys.forEach(this::addToFilter));
+    }
+
+    /**
+     * False if no user has this username or email, as the unique indexes compare
+     */
+    public boolean mightBeTaken(String usernameOrEmail) {
+        BloomFilter filter = bloomFilter;
+        String key = UserKeys.key(usernameOrEmail);
+        return filter == null || !UserKeys.isCovered(key) || filter.mightContain(key);
+    }
+
+    /**
+     * False if mightBeTaken() can only ever answer "maybe" for this username or email
+     */
+    public boolean covers(String usernameOrEmail) {
+        return UserKeys.isCovered(UserKeys.key(usernameOrEmail));
+    }
+
+    /**
+     * Usernames or emails were put in use - add them on every node
+     * After commit, so a rebuild that started earlier reads them from the table or receives them as pending
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKeysTaken(UserKeysTakenEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<String> keys = event.getKeys().stream().map(UserKeys::key).toList();
+        keys.forEach(this::addToFilter);
+        try {
+            store.publishTaken(keys);
+        } catch (Exception e) {
+            // Other nodes pick the keys up with their next rebuild
+            log.error("Could not broadcast {} taken usernames/emails: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the filter from the users table, so freed keys fall out and the size follows the table
+     */
+    @Scheduled(
+        initialDelayString = "${user.key-filter.rebuild-interval-ms:3600000}",
+        fixedDelayString = "${user.key-filter.rebuild-interval-ms:3600000}"
+    )
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            Long users = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+            // Two keys per user - once outgrown the configured size, size for twice the actual volume instead
+            long keys = users != null ? users * 2 : 0;
+            BloomFilter rebuilt = new BloomFilter(
+                keys > expectedInsertions ? keys * 2 : expectedInsertions, falsePositiveRate);
+            pendingFilter = rebuilt;
+            // A prepared statement - the MySQL driver only uses a cursor for those
+            PreparedStatementCreator query = connection -> connection.prepareStatement(
+                KEYS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            jdbcTemplate.query(query, rs -> {
+                rebuilt.put(UserKeys.key(rs.getString(1)));
+                rebuilt.put(UserKeys.key(rs.getString(2)));
+            });
+            bloomFilter = rebuilt;
+            log.info("Built username/email Bloom filter with {} keys in {} ms",
+                rebuilt.insertions(), (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (Exception e) {
+            // Keep the current filter - it is a superset of the keys in use (or absent, answering "maybe")
+            log.error("Could not build username/email Bloom filter: {}", e.getMessage());
+        } finally {
+            pendingFilter = null;
+        }
+    }
+
+    private void addToFilter(String key) {
+        BloomFilter filter = bloomFilter;
+        if (filter != null) {
+            filter.put(key);
+        }
+        BloomFilter pending = pendingFilter;
+        if (pending != null) {
+            pending.put(key);
+        }
+    }
+
+    private BloomFilter current() {
+        BloomFilter filter = bloomFilter;
+        return filter != null ? filter : EMPTY;
+    }
+}
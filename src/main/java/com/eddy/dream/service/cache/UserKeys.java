@@ -0,0 +1,47 @@
+package com.eddy.dream.service.cache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Keys for the caches that answer "no such user" or "not taken" without asking the unique indexes
+ *
+ * The indexes compare with utf8mb4_unicode_ci: case-, accent- and width-insensitively, ignoring trailing spaces
+ * and control characters, and equating some letters with letter pairs (ß and ss). key() folds case, accents and
+ * width. A key that is printable ASCII with no trailing space is covered: the collation equates it with the same
+ * values the fold does, as long as the stored values fold to ASCII too (registration only accepts ASCII usernames;
+ * the email index stays the final check on insert). Other keys may match values the fold cannot predict, so their
+ * absence from a cache proves nothing.
+ */
+public final class UserKeys {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private UserKeys() {
+    }
+
+    /**
+     * Username or email with case, accents and width folded
+     */
+    public static String key(String usernameOrEmail) {
+        String decomposed = Normalizer.normalize(usernameOrEmail, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * True if the absence of this key() result from a cache can stand for its absence from the index
+     */
+    public static boolean isCovered(String key) {
+        if (key.isEmpty() || key.charAt(key.length() - 1) == ' ') {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
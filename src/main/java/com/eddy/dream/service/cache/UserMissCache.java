@@ -0,0 +1,127 @@
+package com.eddy.dream.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Negative cache of user IDs and usernames that were looked up and do not exist
+ *
+ * Lookups of unknown users (typically bots probing IDs and usernames) are answered without a query
+ * for a short TTL. A user only ever appears by being created, so registration evicts the new user's
+ * ID and username on every node; the TTL bounds everything else (bulk imports on other nodes,
+ * a miss recorded while the user was being created).
+ * Usernames are keyed as in UserKeys; misses of usernames it does not cover are not recorded, as the new user
+ * that ends them could be created under a different key.
+ */
+@Slf4j
+@Component
+public class UserMissCache {
+
+    private final UserCacheStore store;
+
+    private final boolean enabled;
+
+    private final Cache<Long, Boolean> ids;
+
+    private final Cache<String, Boolean> usernames;
+
+    public UserMissCache(
+        UserCacheStore store,
+        MeterRegistry meterRegistry,
+        @Value("${user.miss-cache.enabled:true}") boolean enabled,
+        @Value("${user.miss-cache.maximum-size:100000}") long maximumSize,
+        @Value("${user.miss-cache.ttl-seconds:10}") long ttlSeconds
+    ) {
+        this.store = store;
+        this.enabled = enabled;
+        this.ids = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        this.usernames = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, "user.miss.ids");
+        CaffeineCacheMetrics.monitor(meterRegistry, usernames, "user.miss.usernames");
+        Gauge.builder("user.miss.hit.ratio", this, UserMissCache::hitRatio)
+            .description("Share of user lookups answered by the miss cache instead of a query")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Users created on any node (including this one) stop being misses everywhere
+        store.subscribeCreated(this::evictLocally);
+    }
+
+    /**
+     * True if the ID was recently looked up and did not exist
+     */
+    public boolean isMissingId(Long id) {
+        return enabled && ids.getIfPresent(id) != null;
+    }
+
+    /**
+     * True if the username (as the unique index compares) was recently looked up and did not exist
+     */
+    public boolean isMissingUsername(String username) {
+        return enabled && usernames.getIfPresent(UserKeys.key(username)) != null;
+    }
+
+    public void recordMissingId(Long id) {
+        if (enabled) {
+            ids.put(id, Boolean.TRUE);
+        }
+    }
+
+    public void recordMissingUsername(String username) {
+        String key = UserKeys.key(username);
+        if (enabled && UserKeys.isCovered(key)) {
+            usernames.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * A user was created - drop its ID and username on every node
+     */
+    public void created(Long id, String username) {
+        evictLocally(id, username);
+        try {
+            store.publishCreated(id, username);
+        } catch (Exception e) {
+            // Other nodes drop the entries once they expire
+            log.error("Could not broadcast creation of user {}: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Many users were created at once - drop every entry on this node
+     */
+    public void clear() {
+        ids.invalidateAll();
+        usernames.invalidateAll();
+    }
+
+    private void evictLocally(Long id, String username) {
+        ids.invalidate(id);
+        usernames.invalidate(UserKeys.key(username));
+    }
+
+    private double hitRatio() {
+        CacheStats stats = ids.stats().plus(usernames.stats());
+        return stats.requestCount() == 0 ? 0.0 : stats.hitRate();
+    }
+}
@@ -0,0 +1,396 @@
+package com.eddy.dream.service.cache;
+
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Two-level cache of UserResponse for lookups by ID and username
+ *
+ * L1 is a small in-process cache with a short TTL, L2 the shared UserCacheStore (Redis across nodes).
+ * A write invalidates the user in L2 and broadcasts its ID; every node then drops it from L1 and from
+ * its Hibernate second-level cache, which would otherwise hand the old row to the next load.
+ * The TTLs bound staleness if a broadcast is lost. A load may read the row before a write commits and finish
+ * after the write's invalidation; it is still returned, but must not put the pre-write state back. L1 skips it
+ * if this node applied any invalidation meanwhile. L2 skips it if the store's generation moved on since before
+ * the load - the invalidation may come from another node whose broadcast has not arrived here yet.
+ * L2 failures are logged and treated as misses; lookups then fall through to the database.
+ */
+@Slf4j
+@Component
+public class UserResponseCache {
+
+    private final UserCacheStore store;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final boolean enabled;
+
+    private final Cache<Long, UserResponse> users;
+
+    private final Cache<String, Long> ids;
+
+    /**
+     * Invalidations applied on this node so far, compared before and after a load
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter storeHits;
+
+    private final Counter storeMisses;
+
+    private final Counter storeErrors;
+
+    private final Counter invalidatedUsers;
+
+    public UserResponseCache(
+        UserCacheStore store,
+        EntityManagerFactory entityManagerFactory,
+        MeterRegistry meterRegistry,
+        @Value("${user.response-cache.enabled:true}") boolean enabled,
+        @Value("${user.response-cache.l1.maximum-size:10000}") long maximumSize,
+        @Value("${user.response-cache.l1.ttl-seconds:30}") long ttlSeconds
+    ) {
+        this.store = store;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        this.ids = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "user.response.l1");
+        this.storeHits = Counter.builder("user.response.l2.gets")
+            .tag("result", "hit")
+            .description("User lookups missed by L1 and answered by the shared store")
+            .register(meterRegistry);
+        this.storeMisses = Counter.builder("user.response.l2.gets")
+            .tag("result", "miss")
+            .description("User lookups missed by L1 and the shared store")
+            .register(meterRegistry);
+        this.storeErrors = Counter.builder("user.response.l2.errors")
+            .description("Failed shared store operations, treated as misses")
+            .register(meterRegistry);
+        this.invalidatedUsers = Counter.builder("user.response.invalidations")
+            .description("Users dropped from this node's cache by invalidations from any node")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Invalidations from any node (including this one) are applied to the local caches
+        store.subscribe(this::evictLocally);
+    }
+
+    /**
+     * Cached user, or the loader's result (cached); the loader's exceptions are passed through, misses are not cached
+     */
+    public UserResponse getById(Long id, Function<Long, UserResponse> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        UserResponse user = users.getIfPresent(id);
+        if (user != null) {
+            return user;
+        }
+        long seen = invalidations.get();
+        user = fromStore(id, seen);
+        if (user != null) {
+            return user;
+        }
+        Long generation = storeGeneration();
+        user = loader.apply(id);
+        cache(user, seen, generation);
+        return user;
+    }
+
+    /**
+     * Same as getById, by username
+     * Cached entries are found case-insensitively; other variants the username column's collation equates
+     * (accents, width) miss the cache and are answered by the loader.
+     */
+    public UserResponse getByUsername(String username, Function<String, UserResponse> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        String key = username.toLowerCase(Locale.ROOT);
+        long seen = invalidations.get();
+        Long id = ids.getIfPresent(key);
+        if (id == null) {
+            id = idFromStore(key);
+        }
+        if (id != null) {
+            UserResponse user = users.getIfPresent(id);
+            if (user == null) {
+                user = fromStore(id, seen);
+            }
+            if (user != null) {
+                return user;
+            }
+        }
+        Long generation = storeGeneration();
+        UserResponse user = loader.apply(username);
+        cache(user, seen, generation);
+        return user;
+    }
+
+    /**
+     * Batch getById: cached users from L1, then one store read for the rest, then one loader call for what
+     * is still missing (cached). IDs the loader does not return are absent from the result.
+     */
+    public Map<Long, UserResponse> getAllById(
+        Collection<Long> userIds, Function<Collection<Long>, List<UserResponse>> loader
+    ) {
+        if (!enabled) {
+            return byId(loader.apply(userIds));
+        }
+        long seen = invalidations.get();
+        Map<Long, UserResponse> found = cached(userIds, seen);
+        List<Long> missing = userIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            found.putAll(load(missing, loader, seen));
+        }
+        return found;
+    }
+
+    /**
+     * Batch getByUsername, keyed by the lower-cased username; usernames the loader does not return are absent
+     */
+    public Map<String, UserResponse> getAllByUsername(
+        Collection<String> usernames, Function<Collection<String>, List<UserResponse>> loader
+    ) {
+        if (!enabled) {
+            return byUsernameKey(loader.apply(usernames));
+        }
+        long seen = invalidations.get();
+        Map<String, Long> userIds = new HashMap<>();
+        List<String> unknownKeys = new ArrayList<>();
+        for (String username : usernames) {
+            String key = username.toLowerCase(Locale.ROOT);
+            Long id = ids.getIfPresent(key);
+            if (id != null) {
+                userIds.put(key, id);
+            } else {
+                unknownKeys.add(key);
+            }
+        }
+        if (!unknownKeys.isEmpty()) {
+            Map<String, Long> stored = idsFromStore(unknownKeys);
+            ids.putAll(stored);
+            userIds.putAll(stored);
+        }
+        Map<Long, UserResponse> cachedUsers = cached(userIds.values(), seen);
+        Map<String, UserResponse> found = new HashMap<>();
+        userIds.forEach((key, id) -> {
+            UserResponse user = cachedUsers.get(id);
+            if (user != null) {
+                found.put(key, user);
+            }
+        });
+        List<String> missing = usernames.stream()
+            .filter(username -> !found.containsKey(username.toLowerCase(Locale.ROOT)))
+            .toList();
+        if (!missing.isEmpty()) {
+            found.putAll(byUsernameKey(load(missing, loader, seen).values()));
+        }
+        return found;
+    }
+
+    /**
+     * Drop the users on every node
+     * This node drops them before returning; the others (and this one again) once the broadcast arrives.
+     * With the cache disabled only this node's Hibernate second-level cache is evicted.
+     */
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            evictEntities(userIds);
+            return;
+        }
+        try {
+            store.invalidate(userIds);
+        } catch (Exception e) {
+            // The broadcast did not go out either - only this node drops the users
+            storeErrors.increment();
+            log.error("Could not invalidate {} cached users: {}", userIds.size(), e.getMessage());
+        }
+        // Not left to the broadcast, which may arrive after this node's next read of the user.
+        // After the store - a load that starts in between reads the new row and is cached.
+        evictLocally(userIds);
+    }
+
+    /**
+     * Profile and status changes invalidate the user once committed
+     * Password changes do not touch any cached field. With the cache disabled there is nothing to do:
+     * Hibernate has already updated its own entry.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (enabled && event.getChangeType() != UserChangedEvent.ChangeType.CREDENTIALS_CHANGED) {
+            invalidate(List.of(event.getUserId()));
+        }
+    }
+
+    private void evictLocally(Collection<Long> userIds) {
+        invalidations.incrementAndGet();
+        users.invalidateAll(userIds);
+        evictEntities(userIds);
+        invalidatedUsers.increment(userIds.size());
+    }
+
+    private void evictEntities(Collection<Long> userIds) {
+        userIds.forEach(id -> entityManagerFactory.getCache().evict(UserEntity.class, id));
+    }
+
+    private UserResponse fromStore(Long id, long seen) {
+        UserResponse user;
+        try {
+            user = store.get(id);
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("Could not read cached user {}: {}", id, e.getMessage());
+            return null;
+        }
+        if (user == null) {
+            storeMisses.increment();
+            return null;
+        }
+        storeHits.increment();
+        if (invalidations.get() == seen) {
+            users.put(user.getId(), user);
+            ids.put(user.getUsername().toLowerCase(Locale.ROOT), user.getId());
+        }
+        return user;
+    }
+
+    /**
+     * Users found in L1, then in one store read (copied to L1 unless an invalidation overlapped)
+     */
+    private Map<Long, UserResponse> cached(Collection<Long> userIds, long seen) {
+        Map<Long, UserResponse> found = new HashMap<>(users.getAllPresent(userIds));
+        List<Long> missing = userIds.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<Long, UserResponse> stored;
+        try {
+            stored = store.getAll(missing);
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("Could not read {} cached users: {}", missing.size(), e.getMessage());
+            return found;
+        }
+        storeHits.increment(stored.size());
+        storeMisses.increment(missing.size() - stored.size());
+        if (invalidations.get() == seen) {
+            stored.values().forEach(user -> {
+                users.put(user.getId(), user);
+                ids.put(user.getUsername().toLowerCase(Locale.ROOT), user.getId());
+            });
+        }
+        found.putAll(stored);
+        return found;
+    }
+
+    private <K> Map<Long, UserResponse> load(
+        List<K> keys, Function<Collection<K>, List<UserResponse>> loader, long seen
+    ) {
+        Long generation = storeGeneration();
+        Map<Long, UserResponse> loaded = byId(loader.apply(keys));
+        loaded.values().forEach(user -> cache(user, seen, generation));
+        return loaded;
+    }
+
+    private Map<String, Long> idsFromStore(Collection<String> usernameKeys) {
+        try {
+            return store.getIds(usernameKeys);
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("Could not read cached IDs of {} usernames: {}", usernameKeys.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static Map<Long, UserResponse> byId(Collection<UserResponse> users) {
+        Map<Long, UserResponse> byId = new HashMap<>();
+        users.forEach(user -> byId.putIfAbsent(user.getId(), user));
+        return byId;
+    }
+
+    private static Map<String, UserResponse> byUsernameKey(Collection<UserResponse> users) {
+        Map<String, UserResponse> byKey = new HashMap<>();
+        users.forEach(user -> byKey.putIfAbsent(user.getUsername().toLowerCase(Locale.ROOT), user));
+        return byKey;
+    }
+
+    private Long idFromStore(String usernameKey) {
+        try {
+            Long id = store.getId(usernameKey);
+            if (id != null) {
+                ids.put(usernameKey, id);
+            }
+            return id;
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("Could not read cached user ID of {}: {}", usernameKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store generation to pass to put(), or null if it could not be read (the load is then not put in L2)
+     */
+    private Long storeGeneration() {
+        try {
+            return store.generation();
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("Could not read the cached users' generation: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void cache(UserResponse user, long seen, Long generation) {
+        if (invalidations.get() != seen) {
+            return;
+        }
+        users.put(user.getId(), user);
+        ids.put(user.getUsername().toLowerCase(Locale.ROOT), user.getId());
+        if (generation == null) {
+            return;
+        }
+        try {
+            store.put(user, generation);
+        } catch (Exception e) {
+            storeErrors.increment();
+            log.warn("Could not cache user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+}
@@ -1,28 +1,35 @@
 package com.eddy.dream.service.impl;
 
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.config.security.UserAuthorities;
+import com.eddy.dream.config.security.revocation.TokenRevocationService;
 import com.eddy.dream.enums.UserStatus;
 import com.eddy.dream.dto.request.LoginRequest;
 import com.eddy.dream.dto.request.RegisterRequest;
 import com.eddy.dream.dto.response.AuthResponse;
 import com.eddy.dream.dto.response.UserResponse;
 import com.eddy.dream.entity.UserEntity;
-import com.eddy.dream.exception.DuplicateResourceException;
+import com.eddy.dream.event.UserKeysTakenEvent;
+import com.eddy.dream.event.UsersCreatedEvent;
+import com.eddy.dream.exception.AuthenticationException;
 import com.eddy.dream.exception.InvalidCredentialsException;
 import com.eddy.dream.mapper.UserMapper;
 import com.eddy.dream.repository.UserRepository;
 import com.eddy.dream.service.AuthService;
-import com.eddy.dream.service.UserService;
+import com.eddy.dream.service.cache.UserMissCache;
 import com.eddy.dream.util.JwtUtil;
+import com.eddy.dream.util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 @Slf4j
@@ -34,25 +41,23 @@ public class AuthServiceImpl implements AuthService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
-    private final UserService userService;
+    private final UserAuthorities userAuthorities;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final UserMissCache userMissCache;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    
+    private volatile String userNotFoundPassword;
     
+    /**
+     * Optimistic insert: the unique indexes reject duplicates, so there is no exists-check up front.
+     * Not transactional, so no connection is held while the password is hashed.
+     */
     @Override
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         log.info("Registering new user: {}", request.getUsername());
         
-        // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new DuplicateResourceException("User", "username", request.getUsername());
-        }
-        
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new DuplicateResourceException("Email", "email", request.getEmail());
-        }
-        
         // Create entity and save to database
         UserEntity entity = UserEntity.builder()
             .username(request.getUsername())
@@ -61,11 +66,19 @@ public class AuthServiceImpl implements AuthService {
             .status(UserStatus.ACTIVE)
             .build();
         
-        UserEntity savedEntity = userRepository.save(entity);
+        UserEntity savedEntity;
+        try {
+            savedEntity = userRepository.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw UserConstraintViolations.translate(e, request.getUsername(), request.getEmail());
+        }
+        eventPublisher.publishEvent(new UsersCreatedEvent(1));
+        eventPublisher.publishEvent(new UserKeysTakenEvent(List.of(savedEntity.getUsername(), savedEntity.getEmail())));
+        // Lookups that recently missed this user (on any node) must see it now
+        userMissCache.created(savedEntity.getId(), savedEntity.getUsername());
         
-        // Generate JWT Token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(savedEntity.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
+        // Generate JWT Token from the saved state, no reload
+        String token = generateToken(savedEntity);
         
         // Build response
         UserResponse userResponse = userMapper.entityToResponse(savedEntity);
@@ -75,38 +88,94 @@ public class AuthServiceImpl implements AuthService {
         return AuthResponse.of(token, jwtUtil.getExpiration(), userResponse);
     }
     
+    /**
+     * Single-load login: the row is read once and that state is used to verify the password,
+     * build the token and the response; the login time is buffered and written behind.
+     * Usernames that recently did not exist skip the query (miss cache), not the password hash.
+     * Not transactional, so no connection is held while BCrypt runs.
+     */
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest request) {
         log.info("User logging in: {}", request.getUsername());
         
+        UserEntity user = userMissCache.isMissingUsername(request.getUsername())
+            ? null
+            : userRepository.findByUsername(request.getUsername()).orElse(null);
+        if (user == null) {
+            userMissCache.recordMissingUsername(request.getUsername());
+            // Hash anyway, so an unknown username takes as long as a wrong password
+            passwordEncoder.matches(request.getPassword(), userNotFoundPassword());
+            throw loginFailed(request.getUsername(), "user not found");
+        }
+        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            throw loginFailed(request.getUsername(), "bad credentials");
+        }
+        if (user.getStatus() != UserStatus.ACTIVE) {
+            throw loginFailed(request.getUsername(), "account " + user.getStatus());
+        }
+        
+        // Rehash if the stored hash uses another cost or version - stored by the same service
+        // DaoAuthenticationProvider would use, so this check does not depend on which providers are configured
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            String rehashed = passwordEncoder.encode(request.getPassword());
+            userDetailsPasswordService.updatePassword(principal(user), rehashed);
+            user.setPassword(rehashed);
+        }
+        
+        // Update last login time (write-behind, flushed in batches)
+        LocalDateTime loginAt = LocalDateTime.now();
+        lastLoginBuffer.record(user.getId(), loginAt);
+        user.setLastLoginAt(loginAt);
+        
+        // Generate JWT Token
+        String token = generateToken(user);
+        
+        log.info("User logged in successfully: {}", request.getUsername());
+        
+        return AuthResponse.of(token, jwtUtil.getExpiration(), userMapper.entityToResponse(user));
+    }
+    
+    @Override
+    public void logout(String token) {
+        VerifiedToken verifiedToken;
         try {
-            // Authenticate using Spring Security
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    request.getUsername(),
-                    request.getPassword()
-                )
-            );
-            
-            // Authentication successful, generate JWT Token
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
-            
-            // Update last login time
-            userService.updateLastLogin(request.getUsername());
-            
-            // Get user information
-            UserResponse userResponse = userService.getUserByUsername(request.getUsername());
-            
-            log.info("User logged in successfully: {}", request.getUsername());
-            
-            return AuthResponse.of(token, jwtUtil.getExpiration(), userResponse);
-            
-        } catch (Exception e) {
-            log.error("Login failed: {}", e.getMessage());
-            throw new InvalidCredentialsException();
+            verifiedToken = jwtUtil.verifyToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthenticationException("Invalid or expired token");
+        }
+        
+        tokenRevocationService.revoke(verifiedToken);
+        log.info("User logged out: {}", verifiedToken.getSubject());
+    }
+    
+    private String generateToken(UserEntity user) {
+        return jwtUtil.generateToken(principal(user));
+    }
+    
+    private AuthenticatedUser principal(UserEntity user) {
+        return new AuthenticatedUser(
+            user.getId(),
+            user.getUsername(),
+            user.getPassword(),
+            user.getStatus(),
+            userAuthorities.of(user.getUsername())
+        );
+    }
+    
+    private InvalidCredentialsException loginFailed(String username, String reason) {
+        log.error("Login failed for {}: {}", username, reason);
+        return new InvalidCredentialsException();
+    }
+    
+    /**
+     * Hash compared against when the user does not exist, created on first use
+     */
+    private String userNotFoundPassword() {
+        String encoded = userNotFoundPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode("userNotFoundPassword");
+            userNotFoundPassword = encoded;
         }
+        return encoded;
     }
 }
-
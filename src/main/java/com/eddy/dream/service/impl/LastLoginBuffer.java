@@ -0,0 +1,168 @@
+package com.eddy.dream.service.impl;
+
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.UserResponseCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for last-login timestamps
+ *
+ * Logins only put (user ID, time) into a map; repeated logins of the same user coalesce to the latest time.
+ * The map is flushed periodically as one JDBC batch, outside of any login request, and once more on shutdown.
+ * The buffer is bounded: a new user arriving at a full buffer is written directly instead.
+ * A crash loses at most one flush interval of last-login times.
+ * Every write invalidates the written users on all nodes (user caches and Hibernate's second-level cache).
+ */
+@Slf4j
+@Component
+public class LastLoginBuffer {
+    
+    static final String UPDATE_SQL = "UPDATE users SET last_login_at = ?, updated_at = ? "
+        + "WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final UserRepository userRepository;
+    
+    private final UserResponseCache userResponseCache;
+    
+    private final boolean enabled;
+    
+    private final int maxPending;
+    
+    private final int batchSize;
+    
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    
+    /**
+     * Serialises the scheduled flush with the shutdown flush
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    
+    private final Timer flushTimer;
+    
+    private final Counter flushedRows;
+    
+    private final Counter overflowWrites;
+    
+    public LastLoginBuffer(
+        JdbcTemplate jdbcTemplate,
+        UserRepository userRepository,
+        UserResponseCache userResponseCache,
+        MeterRegistry meterRegistry,
+        @Value("${user.last-login.write-behind.enabled:true}") boolean enabled,
+        @Value("${user.last-login.write-behind.max-pending:100000}") int maxPending,
+        @Value("${user.last-login.write-behind.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.userResponseCache = userResponseCache;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        Gauge.builder("user.last-login.pending", pending, Map::size)
+            .description("Last-login timestamps waiting to be flushed")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("user.last-login.flush")
+            .description("Time to write one batch of buffered last-login timestamps")
+            .register(meterRegistry);
+        this.flushedRows = Counter.builder("user.last-login.flushed")
+            .description("Last-login timestamps written by the buffer")
+            .register(meterRegistry);
+        this.overflowWrites = Counter.builder("user.last-login.overflow")
+            .description("Last-login timestamps written directly because the buffer was full")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Buffer a successful login; only the latest time per user is kept
+     */
+    public void record(Long userId, LocalDateTime loginAt) {
+        if (!enabled) {
+            writeDirectly(userId, loginAt);
+            return;
+        }
+        if (pending.size() >= maxPending && !pending.containsKey(userId)) {
+            overflowWrites.increment();
+            writeDirectly(userId, loginAt);
+            return;
+        }
+        pending.merge(userId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+    
+    /**
+     * Write all buffered timestamps as JDBC batches
+     * Rows whose stored time is already newer are left alone, so a late flush never moves a login back.
+     */
+    @Scheduled(
+        initialDelayString = "${user.last-login.write-behind.flush-interval-ms:5000}",
+        fixedDelayString = "${user.last-login.write-behind.flush-interval-ms:5000}"
+    )
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Object[]> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+            for (Long userId : pending.keySet()) {
+                // remove() hands each entry to exactly one flush; a login after this lands in the next one
+                LocalDateTime loginAt = pending.remove(userId);
+                if (loginAt == null) {
+                    continue;
+                }
+                Timestamp timestamp = Timestamp.valueOf(loginAt);
+                batch.add(new Object[]{timestamp, timestamp, userId, timestamp});
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        log.info("Flushing {} buffered last-login timestamps", pending.size());
+        flush();
+    }
+    
+    private void writeDirectly(Long userId, LocalDateTime loginAt) {
+        userRepository.recordLogin(userId, loginAt);
+        userResponseCache.invalidate(List.of(userId));
+    }
+    
+    private void write(List<Object[]> batch) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+            flushedRows.increment(batch.size());
+            userResponseCache.invalidate(batch.stream().map(row -> (Long) row[2]).toList());
+        } catch (Exception e) {
+            // Put the batch back for the next flush, unless a newer login has arrived meanwhile
+            log.error("Could not flush {} last-login timestamps: {}", batch.size(), e.getMessage());
+            for (Object[] row : batch) {
+                LocalDateTime loginAt = ((Timestamp) row[0]).toLocalDateTime();
+                pending.merge((Long) row[2], loginAt, (current, next) -> next.isAfter(current) ? next : current);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.eddy.dream.service.impl;
+
+import com.eddy.dream.dto.response.UserResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Users already read during the current HTTP request, by ID
+ * Kept as a request attribute, so it is dropped with the request and never serves another request's data.
+ * Principals are cached across requests (token and user details caches), which is why the snapshot lives here
+ * and not on the principal. Outside a request (scheduled or async work) nothing is kept.
+ */
+final class RequestIdentityMap {
+    
+    private static final String ATTRIBUTE = RequestIdentityMap.class.getName();
+    
+    private RequestIdentityMap() {
+    }
+    
+    static UserResponse get(Long id) {
+        Map<Long, UserResponse> users = users(false);
+        return users != null ? users.get(id) : null;
+    }
+    
+    static void put(UserResponse user) {
+        Map<Long, UserResponse> users = users(true);
+        if (users != null) {
+            users.put(user.getId(), user);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<Long, UserResponse> users(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Long, UserResponse> users =
+            (Map<Long, UserResponse>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (users == null && create) {
+            users = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return users;
+    }
+}
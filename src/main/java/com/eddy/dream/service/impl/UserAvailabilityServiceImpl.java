@@ -0,0 +1,114 @@
+package com.eddy.dream.service.impl;
+
+import com.eddy.dream.dto.response.UserAvailabilityResponse;
+import com.eddy.dream.exception.BusinessException;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.UserAvailabilityService;
+import com.eddy.dream.service.cache.UserKeyFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Predicate;
+
+/**
+ * Username / email availability checks
+ *
+ * The Bloom filter answers "free" for almost every candidate without I/O; only a filter hit (taken, or a
+ * false positive) queries the unique index. The share of free keys the filter could not rule out is reported
+ * as the observed false-positive rate. Keys the filter does not cover (see UserKeys) go straight to the index
+ * and are left out of that rate.
+ */
+@Slf4j
+@Service
+public class UserAvailabilityServiceImpl implements UserAvailabilityService {
+
+    private final UserRepository userRepository;
+
+    private final UserKeyFilter userKeyFilter;
+
+    /**
+     * Free keys answered by the filter alone
+     */
+    private final Counter filtered;
+
+    /**
+     * Free keys the filter reported as "maybe" - false positives
+     */
+    private final Counter falsePositives;
+
+    /**
+     * Free keys the filter does not cover, answered by the unique index
+     */
+    private final Counter unfiltered;
+
+    private final Counter taken;
+
+    public UserAvailabilityServiceImpl(
+        UserRepository userRepository,
+        UserKeyFilter userKeyFilter,
+        MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.userKeyFilter = userKeyFilter;
+        this.filtered = checks(meterRegistry, "filtered");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        this.unfiltered = checks(meterRegistry, "unfiltered");
+        this.taken = checks(meterRegistry, "taken");
+        Gauge.builder("user.availability.false.positive.rate", this, UserAvailabilityServiceImpl::falsePositiveRate)
+            .description("Share of free usernames/emails the Bloom filter reported as maybe taken")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public UserAvailabilityResponse checkAvailability(String username, String email) {
+        log.debug("Checking availability of username {} / email {}", username, email);
+
+        boolean hasUsername = username != null && !username.isBlank();
+        boolean hasEmail = email != null && !email.isBlank();
+        if (!hasUsername && !hasEmail) {
+            throw new BusinessException("Username or email is required");
+        }
+
+        UserAvailabilityResponse.UserAvailabilityResponseBuilder response = UserAvailabilityResponse.builder();
+        if (hasUsername) {
+            response.username(username).usernameAvailable(isFree(username, userRepository::existsByUsername));
+        }
+        if (hasEmail) {
+            response.email(email).emailAvailable(isFree(email, userRepository::existsByEmail));
+        }
+        return response.build();
+    }
+
+    private boolean isFree(String key, Predicate<String> existsInDatabase) {
+        if (!userKeyFilter.covers(key)) {
+            boolean free = !existsInDatabase.test(key);
+            (free ? unfiltered : taken).increment();
+            return free;
+        }
+        if (!userKeyFilter.mightBeTaken(key)) {
+            filtered.increment();
+            return true;
+        }
+        if (existsInDatabase.test(key)) {
+            taken.increment();
+            return false;
+        }
+        falsePositives.increment();
+        return true;
+    }
+
+    private double falsePositiveRate() {
+        double free = filtered.count() + falsePositives.count();
+        return free == 0 ? 0.0 : falsePositives.count() / free;
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.availability.checks")
+            .description("Username/email availability checks by outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
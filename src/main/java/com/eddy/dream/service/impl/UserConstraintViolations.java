@@ -0,0 +1,53 @@
+package com.eddy.dream.service.impl;
+
+import com.eddy.dream.exception.DuplicateResourceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Locale;
+
+/**
+ * Maps unique-key violations on the users table to DuplicateResourceException
+ * Works for JPA writes (Hibernate's extracted constraint name) and plain JDBC writes (driver message).
+ *
+ * Username and email uniqueness is left to the idx_username / idx_email indexes: services write optimistically
+ * and translate the violation, instead of querying first (an extra round trip, and racy under concurrency).
+ */
+final class UserConstraintViolations {
+    
+    static final String USERNAME_INDEX = "idx_username";
+    
+    static final String EMAIL_INDEX = "idx_email";
+    
+    private UserConstraintViolations() {
+    }
+    
+    /**
+     * Exception to throw for a failed insert or update of a user
+     * Violations of other constraints are returned unchanged.
+     */
+    static RuntimeException translate(DataIntegrityViolationException e, String username, String email) {
+        ConstraintViolationException violation = e.getCause() instanceof ConstraintViolationException cause
+            ? cause
+            : null;
+        String key = violation != null && violation.getConstraintName() != null
+            ? violation.getConstraintName()
+            : e.getMostSpecificCause().getMessage();
+        key = key == null ? "" : key.toLowerCase(Locale.ROOT);
+        
+        if (key.contains(USERNAME_INDEX)) {
+            return new DuplicateResourceException("User", "username", username);
+        }
+        if (key.contains(EMAIL_INDEX)) {
+            return new DuplicateResourceException("Email", "email", email);
+        }
+        boolean unique = e instanceof DuplicateKeyException
+            || violation != null && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+        if (unique) {
+            // Unique key created under another name (e.g. by an older schema)
+            return new DuplicateResourceException("User already exists, username or email is taken");
+        }
+        return e;
+    }
+}
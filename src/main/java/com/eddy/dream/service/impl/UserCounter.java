@@ -0,0 +1,147 @@
+package com.eddy.dream.service.impl;
+
+import com.eddy.dream.enums.CountStrategy;
+import com.eddy.dream.event.UsersCreatedEvent;
+import com.eddy.dream.repository.UserRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Total number of users for paginated listings, per CountStrategy
+ *
+ * The cached count is an exact COUNT(*) taken at most once per TTL; creations published in between are added
+ * to it, so it stays current without counting again. Changes that publish nothing (manual SQL, deletes) show up
+ * after the next refresh. Only one thread refreshes; the others keep answering with the previous value.
+ * The estimate reads the row count MySQL keeps in information_schema (approximate for InnoDB, and itself
+ * cached by the server for information_schema_stats_expiry); databases without it fall back to the cached count
+ * for good, other failures to read it only for that call.
+ */
+@Slf4j
+@Component
+public class UserCounter {
+    
+    static final String ESTIMATE_SQL = "SELECT TABLE_ROWS FROM information_schema.TABLES "
+        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users'";
+    
+    private final UserRepository userRepository;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Strategy used when the request does not choose one
+     */
+    @Getter
+    private final CountStrategy defaultStrategy;
+    
+    private final long ttlNanos;
+    
+    private final AtomicReference<CachedCount> cached = new AtomicReference<>();
+    
+    /**
+     * Serialises refreshes, so an expired count costs one COUNT(*) and not one per request
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    
+    private volatile boolean estimateUnavailable;
+    
+    public UserCounter(
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        @Value("${user.list.count-strategy:cached}") CountStrategy defaultStrategy,
+        @Value("${user.list.count-ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultStrategy = defaultStrategy;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    }
+    
+    /**
+     * Total for the given strategy, null for NONE
+     */
+    public Long count(CountStrategy strategy) {
+        return switch (strategy) {
+            case EXACT -> userRepository.count();
+            case CACHED -> cachedCount();
+            case ESTIMATED -> estimatedCount();
+            case NONE -> null;
+        };
+    }
+    
+    /**
+     * Creations are added to the cached count once committed; before the first refresh there is nothing to add to
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersCreated(UsersCreatedEvent event) {
+        cached.updateAndGet(current -> current == null ? null : current.plus(event.getCount()));
+    }
+    
+    private long cachedCount() {
+        CachedCount current = cached.get();
+        if (current != null && System.nanoTime() - current.countedAt() < ttlNanos) {
+            return current.value();
+        }
+        // Someone else is refreshing - a stale count is good enough meanwhile
+        if (current != null && !refreshLock.tryLock()) {
+            return current.value();
+        }
+        if (current == null) {
+            refreshLock.lock();
+        }
+        try {
+            current = cached.get();
+            if (current != null && System.nanoTime() - current.countedAt() < ttlNanos) {
+                return current.value();
+            }
+            long countedAt = System.nanoTime();
+            long value = userRepository.count();
+            log.debug("Refreshed cached user count: {}", value);
+            cached.set(new CachedCount(value, countedAt));
+            return value;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+    
+    private long estimatedCount() {
+        if (!estimateUnavailable) {
+            try {
+                Long estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+                if (estimate != null) {
+                    return estimate;
+                }
+            } catch (NonTransientDataAccessException e) {
+                if (e instanceof NonTransientDataAccessResourceException) {
+                    // Database unreachable - says nothing about the statistics, try again next time
+                    log.warn("Table statistics unavailable, using the cached count: {}", e.getMessage());
+                    return cachedCount();
+                }
+                // Not MySQL (no such table, no DATABASE()) - retrying the same statement cannot succeed
+                log.warn("Table statistics unavailable, estimated user counts use the cached count: {}", e.getMessage());
+                estimateUnavailable = true;
+            } catch (DataAccessException e) {
+                // Transient (timeout, lock, deadlock) - fall back for this call only
+                log.warn("Table statistics unavailable, using the cached count: {}", e.getMessage());
+            }
+        }
+        return cachedCount();
+    }
+    
+    private record CachedCount(long value, long countedAt) {
+        
+        CachedCount plus(int created) {
+            return new CachedCount(value + created, countedAt);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.eddy.dream.service.impl;
+
+import com.eddy.dream.config.id.UserIdGenerator;
+import com.eddy.dream.config.security.BCryptCalibration;
+import com.eddy.dream.config.security.CalibratedBCryptPasswordEncoder;
+import com.eddy.dream.dto.request.RegisterRequest;
+import com.eddy.dream.dto.request.UserImportRow;
+import com.eddy.dream.dto.response.UserImportResult;
+import com.eddy.dream.dto.response.UserImportSummary;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.event.UserKeysTakenEvent;
+import com.eddy.dream.event.UsersCreatedEvent;
+import com.eddy.dream.service.cache.UserKeys;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.exception.DuplicateResourceException;
+import com.eddy.dream.service.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder.BCryptVersion;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Streaming bulk import of users
+ *
+ * The input is read one record at a time - NDJSON line by line, CSV through Jackson's streaming CSV parser -
+ * and handled in batches of user-import.batch-size rows, so memory does not grow with the file.
+ * Per batch: validate against the RegisterRequest constraints, reject duplicates (within the batch, then one
+ * query against the table), hash plain passwords in parallel and insert the rest with one JDBC batch
+ * (IDs from the UserIdGenerator, as for JPA inserts);
+ * with rewriteBatchedStatements the MySQL driver sends it as multi-row INSERTs.
+ * If the batch still hits a unique index (a concurrent registration), it is rolled back and retried row by row,
+ * so every row gets its own result.
+ * The inserts bypass Hibernate, so cached query results (possibly "no such user") are evicted after each batch,
+ * as is this node's miss cache. The new usernames and emails go to the availability Bloom filter.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    
+    static final String INSERT_SQL = "INSERT INTO users (id, username, email, password, status, created_at, updated_at) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    /**
+     * Two index lookups - an OR across both columns can fall back to a table scan
+     */
+    private static final String EXISTING_SQL = "SELECT 'username', username FROM users WHERE username IN (:usernames) "
+        + "UNION ALL SELECT 'email', email FROM users WHERE email IN (:emails)";
+    
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final UserIdGenerator userIdGenerator;
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    private final UserMissCache userMissCache;
+    
+    private final Validator validator;
+    
+    private final ObjectReader jsonReader;
+    
+    private final ObjectReader csvReader;
+    
+    /**
+     * Own encoder and pool - a bulk import must not take the login path's hashing threads
+     */
+    private final PasswordEncoder passwordEncoder;
+    
+    private final ExecutorService hashingExecutor;
+    
+    private final int batchSize;
+    
+    private final Map<UserImportResult.Status, Counter> rowCounters = new EnumMap<>(UserImportResult.Status.class);
+    
+    public UserImportServiceImpl(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        UserIdGenerator userIdGenerator,
+        ApplicationEventPublisher eventPublisher,
+        EntityManagerFactory entityManagerFactory,
+        UserMissCache userMissCache,
+        Validator validator,
+        ObjectMapper objectMapper,
+        BCryptCalibration bcryptCalibration,
+        MeterRegistry meterRegistry,
+        @Value("${user-import.batch-size:1000}") int batchSize,
+        @Value("${user-import.hashing-threads:0}") int hashingThreads
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userIdGenerator = userIdGenerator;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.userMissCache = userMissCache;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(UserImportRow.class);
+        this.csvReader = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .build()
+            .readerFor(UserImportRow.class)
+            .with(CsvSchema.emptySchema().withHeader());
+        this.passwordEncoder = new CalibratedBCryptPasswordEncoder(BCryptVersion.$2A, bcryptCalibration.getStrength());
+        this.hashingExecutor = Executors.newFixedThreadPool(
+            hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors(),
+            new CustomizableThreadFactory("user-import-hashing-")
+        );
+        this.batchSize = batchSize;
+        for (UserImportResult.Status status : UserImportResult.Status.values()) {
+            rowCounters.put(status, Counter.builder("user.import.rows")
+                .description("Rows processed by the bulk user import")
+                .tag("result", status.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    public UserImportSummary importUsers(InputStream input, Format format, Consumer<UserImportResult> results) {
+        long startNanos = System.nanoTime();
+        Map<UserImportResult.Status, Long> counts = new EnumMap<>(UserImportResult.Status.class);
+        Consumer<UserImportResult> reporter = result -> {
+            counts.merge(result.getStatus(), 1L, Long::sum);
+            rowCounters.get(result.getStatus()).increment();
+            results.accept(result);
+        };
+        
+        List<PendingUser> batch = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+        try (RowReader reader = format == Format.CSV ? csvRowReader(input) : ndjsonRowReader(input)) {
+            for (ParsedRow parsed = reader.next(); parsed != null; parsed = reader.next()) {
+                batch.add(validate(++rowNumber, parsed));
+                if (batch.size() == batchSize) {
+                    importBatch(batch, reporter);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import input after row " + rowNumber, e);
+        }
+        importBatch(batch, reporter);
+        
+        long elapsedNanos = System.nanoTime() - startNanos;
+        UserImportSummary summary = UserImportSummary.builder()
+            .total(rowNumber)
+            .created(counts.getOrDefault(UserImportResult.Status.CREATED, 0L))
+            .invalid(counts.getOrDefault(UserImportResult.Status.INVALID, 0L))
+            .duplicate(counts.getOrDefault(UserImportResult.Status.DUPLICATE, 0L))
+            .failed(counts.getOrDefault(UserImportResult.Status.FAILED, 0L))
+            .elapsedMillis(elapsedNanos / 1_000_000)
+            .rowsPerSecond(elapsedNanos == 0 ? 0 : rowNumber * 1e9 / elapsedNanos)
+            .build();
+        log.info("User import finished: {}", summary);
+        return summary;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+    
+    /**
+     * Check a row against the RegisterRequest constraints
+     * A row with a valid BCrypt hash skips the password rules - the plain password is unknown
+     */
+    private PendingUser validate(long rowNumber, ParsedRow parsed) {
+        UserImportRow row = parsed.row();
+        if (parsed.error() != null || row == null) {
+            String error = parsed.error() != null ? parsed.error() : "Empty record";
+            return PendingUser.resolved(rowNumber, null, UserImportResult.Status.INVALID, error);
+        }
+        
+        List<String> errors = new ArrayList<>();
+        validateProperty("username", blankToNull(row.getUsername()), errors);
+        validateProperty("email", blankToNull(row.getEmail()), errors);
+        String passwordHash = blankToNull(row.getPasswordHash());
+        if (passwordHash == null) {
+            validateProperty("password", blankToNull(row.getPassword()), errors);
+        } else if (!BCRYPT_HASH.matcher(passwordHash).matches()) {
+            errors.add("Password hash must be a BCrypt hash");
+        }
+        
+        if (!errors.isEmpty()) {
+            return PendingUser.resolved(rowNumber, row.getUsername(), UserImportResult.Status.INVALID, errors);
+        }
+        return new PendingUser(rowNumber, row, passwordHash);
+    }
+    
+    private void validateProperty(String property, String value, List<String> errors) {
+        validator.validateValue(RegisterRequest.class, property, value)
+            .forEach(violation -> errors.add(violation.getMessage()));
+    }
+    
+    /**
+     * Store the valid rows of a batch and report every row of it in input order
+     */
+    private void importBatch(List<PendingUser> batch, Consumer<UserImportResult> reporter) {
+        List<PendingUser> candidates = batch.stream().filter(PendingUser::isPending).toList();
+        if (!candidates.isEmpty()) {
+            rejectDuplicates(candidates);
+            List<PendingUser> accepted = candidates.stream().filter(PendingUser::isPending).toList();
+            hashPasswords(accepted);
+            insert(accepted);
+            List<PendingUser> created = accepted.stream()
+                .filter(user -> user.result.getStatus() == UserImportResult.Status.CREATED)
+                .toList();
+            if (!created.isEmpty()) {
+                entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictQueryRegions();
+                userMissCache.clear();
+                eventPublisher.publishEvent(new UsersCreatedEvent(created.size()));
+                eventPublisher.publishEvent(new UserKeysTakenEvent(created.stream()
+                    .flatMap(user -> Stream.of(user.row.getUsername(), user.row.getEmail()))
+                    .toList()));
+            }
+        }
+        batch.forEach(user -> reporter.accept(user.result));
+    }
+    
+    /**
+     * Duplicates within the batch, then one query for usernames and emails already taken
+     * Compared with case, accents and width folded, like the MySQL collation of the unique indexes
+     */
+    private void rejectDuplicates(List<PendingUser> candidates) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (PendingUser user : candidates) {
+            String username = key(user.row.getUsername());
+            String email = key(user.row.getEmail());
+            if (usernames.contains(username)) {
+                user.resolve(UserImportResult.Status.DUPLICATE, "Username appears more than once in this import");
+            } else if (emails.contains(email)) {
+                user.resolve(UserImportResult.Status.DUPLICATE, "Email appears more than once in this import");
+            } else {
+                usernames.add(username);
+                emails.add(email);
+            }
+        }
+        
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        namedParameterJdbcTemplate.query(
+            EXISTING_SQL,
+            Map.of("usernames", usernames, "emails", emails),
+            rs -> {
+                Set<String> existing = "username".equals(rs.getString(1)) ? existingUsernames : existingEmails;
+                existing.add(key(rs.getString(2)));
+            }
+        );
+        for (PendingUser user : candidates) {
+            if (!user.isPending()) {
+                continue;
+            }
+            if (existingUsernames.contains(key(user.row.getUsername()))) {
+                user.resolve(UserImportResult.Status.DUPLICATE,
+                    new DuplicateResourceException("User", "username", user.row.getUsername()).getMessage());
+            } else if (existingEmails.contains(key(user.row.getEmail()))) {
+                user.resolve(UserImportResult.Status.DUPLICATE,
+                    new DuplicateResourceException("Email", "email", user.row.getEmail()).getMessage());
+            }
+        }
+    }
+    
+    private void hashPasswords(List<PendingUser> users) {
+        List<CompletableFuture<Void>> hashing = new ArrayList<>();
+        for (PendingUser user : users) {
+            if (user.passwordHash == null) {
+                hashing.add(CompletableFuture.runAsync(
+                    () -> user.passwordHash = passwordEncoder.encode(user.row.getPassword()),
+                    hashingExecutor
+                ));
+            }
+        }
+        // join() also publishes the hashes written by the pool threads
+        CompletableFuture.allOf(hashing.toArray(CompletableFuture[]::new)).join();
+    }
+    
+    private void insert(List<PendingUser> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        users.forEach(user -> user.id = userIdGenerator.nextId());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> bind(ps, user, now))
+            );
+            users.forEach(user -> user.resolve(UserImportResult.Status.CREATED));
+        } catch (DataIntegrityViolationException e) {
+            // Taken concurrently since the duplicate check - the batch rolled back, retry one by one
+            log.debug("Import batch hit a unique index, retrying {} rows individually", users.size());
+            users.forEach(user -> insertOne(user, now));
+        } catch (DataAccessException e) {
+            log.error("Could not store import batch of {} rows: {}", users.size(), e.getMessage());
+            users.forEach(user -> user.resolve(UserImportResult.Status.FAILED, "Could not store user"));
+        }
+    }
+    
+    private void insertOne(PendingUser user, Timestamp now) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, user, now));
+            user.resolve(UserImportResult.Status.CREATED);
+        } catch (DataIntegrityViolationException e) {
+            RuntimeException translated = UserConstraintViolations.translate(
+                e, user.row.getUsername(), user.row.getEmail());
+            if (translated instanceof DuplicateResourceException) {
+                user.resolve(UserImportResult.Status.DUPLICATE, translated.getMessage());
+            } else {
+                user.resolve(UserImportResult.Status.FAILED, "Could not store user");
+            }
+        } catch (DataAccessException e) {
+            user.resolve(UserImportResult.Status.FAILED, "Could not store user");
+        }
+    }
+    
+    private static void bind(PreparedStatement ps, PendingUser user, Timestamp now) throws SQLException {
+        ps.setLong(1, user.id);
+        ps.setString(2, user.row.getUsername());
+        ps.setString(3, user.row.getEmail());
+        ps.setString(4, user.passwordHash);
+        ps.setString(5, UserStatus.ACTIVE.name());
+        ps.setTimestamp(6, now);
+        ps.setTimestamp(7, now);
+    }
+    
+    private RowReader ndjsonRowReader(InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return new RowReader() {
+            @Override
+            public ParsedRow next() throws IOException {
+                String line = reader.readLine();
+                while (line != null && line.isBlank()) {
+                    line = reader.readLine();
+                }
+                if (line == null) {
+                    return null;
+                }
+                try {
+                    return new ParsedRow(jsonReader.readValue(line), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+    
+    private RowReader csvRowReader(InputStream input) throws IOException {
+        MappingIterator<UserImportRow> records = csvReader.readValues(input);
+        return new RowReader() {
+            private long lastErrorOffset = -1;
+            
+            @Override
+            public ParsedRow next() throws IOException {
+                try {
+                    return records.hasNextValue() ? new ParsedRow(records.nextValue(), null) : null;
+                } catch (JsonProcessingException e) {
+                    // The iterator skips past a bad record; failing twice at one offset means it cannot
+                    long offset = records.getCurrentLocation().getCharOffset();
+                    if (offset == lastErrorOffset) {
+                        throw e;
+                    }
+                    lastErrorOffset = offset;
+                    return new ParsedRow(null, "Malformed CSV record: " + e.getOriginalMessage());
+                }
+            }
+            
+            @Override
+            public void close() throws IOException {
+                records.close();
+            }
+        };
+    }
+    
+    private static String key(String value) {
+        return UserKeys.key(value);
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+    
+    private interface RowReader extends Closeable {
+        
+        /**
+         * Next record, or null at the end of the input
+         */
+        ParsedRow next() throws IOException;
+    }
+    
+    private record ParsedRow(UserImportRow row, String error) {
+    }
+    
+    /**
+     * A row between parsing and its result
+     */
+    private static final class PendingUser {
+        
+        private final long rowNumber;
+        
+        private final UserImportRow row;
+        
+        private long id;
+        
+        private String passwordHash;
+        
+        private UserImportResult result;
+        
+        private PendingUser(long rowNumber, UserImportRow row, String passwordHash) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.passwordHash = passwordHash;
+        }
+        
+        static PendingUser resolved(long rowNumber, String username, UserImportResult.Status status, String error) {
+            return resolved(rowNumber, username, status, List.of(error));
+        }
+        
+        static PendingUser resolved(long rowNumber, String username, UserImportResult.Status status, List<String> errors) {
+            PendingUser user = new PendingUser(rowNumber, null, null);
+            user.result = new UserImportResult(rowNumber, username, status, errors);
+            return user;
+        }
+        
+        boolean isPending() {
+            return result == null;
+        }
+        
+        void resolve(UserImportResult.Status status) {
+            result = new UserImportResult(rowNumber, row.getUsername(), status, null);
+        }
+        
+        void resolve(UserImportResult.Status status, String error) {
+            result = new UserImportResult(rowNumber, row.getUsername(), status, List.of(error));
+        }
+    }
+}
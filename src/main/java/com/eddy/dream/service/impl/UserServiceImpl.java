@@ -3,28 +3,49 @@ package com.eddy.dream.service.impl;
 import com.eddy.dream.aspect.annotation.LogExecutionTime;
 import com.eddy.dream.dto.request.UpdateUserRequest;
 import com.eddy.dream.dto.response.PageResponse;
+import com.eddy.dream.dto.response.UserBatchResponse;
 import com.eddy.dream.dto.response.UserResponse;
 import com.eddy.dream.entity.UserEntity;
-import com.eddy.dream.exception.DuplicateResourceException;
+import com.eddy.dream.enums.CountStrategy;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.event.UserKeysTakenEvent;
+import com.eddy.dream.exception.BusinessException;
 import com.eddy.dream.exception.ResourceNotFoundException;
 import com.eddy.dream.mapper.UserMapper;
 import com.eddy.dream.repository.UserRepository;
 import com.eddy.dream.service.UserService;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.cache.UserResponseCache;
+import com.eddy.dream.util.UserCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * User Service Implementation
+ * Single-user and batch reads go through the miss cache and the two-level UserResponseCache; batch misses load
+ * entities through the second-level cache (read-only transactions, so no dirty-checking snapshots); listings select straight
+ * into UserResponse; writes load and update the entity
  */
 @Slf4j
 @Service
@@ -33,71 +54,194 @@ public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final UserCounter userCounter;
+    private final UserResponseCache userResponseCache;
+    private final UserMissCache userMissCache;
     
+    /**
+     * No @Transactional here - a cache hit must not open a transaction (and borrow a connection)
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         log.debug("Getting user by ID: {}", id);
         
-        UserEntity entity = userRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("User", id));
-        
-        return userMapper.entityToResponse(entity);
+        if (userMissCache.isMissingId(id)) {
+            throw new ResourceNotFoundException("User", id);
+        }
+        return userResponseCache.getById(id, this::loadUser);
     }
     
+    /**
+     * No @Transactional here - a cache hit must not open a transaction (and borrow a connection)
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserResponse getUserByUsername(String username) {
         log.debug("Getting user by username: {}", username);
         
-        UserEntity entity = userRepository.findByUsername(username)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        if (userMissCache.isMissingUsername(username)) {
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+        return userResponseCache.getByUsername(username, this::loadUser);
+    }
+    
+    /**
+     * Primary-key lookup kept in the request's identity map, so further current-user lookups in the same request
+     * issue no query
+     * No @Transactional here - a hit must not open a transaction (and borrow a connection)
+     */
+    @Override
+    public UserResponse getCurrentUser(Long id) {
+        UserResponse current = RequestIdentityMap.get(id);
+        if (current != null) {
+            return current;
+        }
+        log.debug("Getting current user by ID: {}", id);
         
-        return userMapper.entityToResponse(entity);
+        current = userResponseCache.getById(id, this::loadUser);
+        RequestIdentityMap.put(current);
+        return current;
+    }
+    
+    /**
+     * Duplicate keys and recent misses are dropped before querying; users in the UserResponseCache or the
+     * second-level cache are taken from them, the rest cost one IN query per key type (skipped when nothing
+     * of that type is left to load)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @LogExecutionTime(value = "Get Users in Batch", threshold = 1000)
+    public UserBatchResponse getUsers(List<Long> ids, List<String> usernames) {
+        Set<Long> idKeys = ids != null ? new LinkedHashSet<>(ids) : Set.of();
+        Set<String> usernameKeys = usernames != null ? new LinkedHashSet<>(usernames) : Set.of();
+        log.debug("Getting users in batch - ids: {}, usernames: {}", idKeys.size(), usernameKeys.size());
+        if (idKeys.isEmpty() && usernameKeys.isEmpty()) {
+            throw new BusinessException("At least one ID or username is required");
+        }
+        
+        List<Long> idsToFind = idKeys.stream().filter(id -> !userMissCache.isMissingId(id)).toList();
+        Map<Long, UserResponse> byId = idsToFind.isEmpty()
+            ? Map.of()
+            : userResponseCache.getAllById(idsToFind, this::loadUsersById);
+        idsToFind.stream().filter(id -> !byId.containsKey(id)).forEach(userMissCache::recordMissingId);
+        // Matched case-insensitively, as the username column's collation does
+        List<String> usernamesToFind = usernameKeys.stream()
+            .filter(username -> !userMissCache.isMissingUsername(username))
+            .toList();
+        Map<String, UserResponse> byUsername = usernamesToFind.isEmpty()
+            ? Map.of()
+            : userResponseCache.getAllByUsername(usernamesToFind, this::loadUsersByUsername);
+        usernamesToFind.stream()
+            .filter(username -> !byUsername.containsKey(usernameKey(username)))
+            .forEach(userMissCache::recordMissingUsername);
+        
+        // Request order, IDs first; a user asked for by both ID and username appears once
+        Map<Long, UserResponse> users = new LinkedHashMap<>();
+        idKeys.stream().map(byId::get).filter(Objects::nonNull).forEach(user -> users.putIfAbsent(user.getId(), user));
+        usernameKeys.stream().map(username -> byUsername.get(usernameKey(username))).filter(Objects::nonNull)
+            .forEach(user -> users.putIfAbsent(user.getId(), user));
+        
+        return UserBatchResponse.builder()
+            .users(List.copyOf(users.values()))
+            .missingIds(idKeys.stream().filter(id -> !byId.containsKey(id)).toList())
+            .missingUsernames(usernameKeys.stream().filter(username -> !byUsername.containsKey(usernameKey(username))).toList())
+            .build();
     }
-
     
+    /**
+     * EXACT runs COUNT(*) alongside the page (skipped by Spring Data when the page itself reveals the total);
+     * the other strategies read size + 1 rows to decide hasNext and take the total from the UserCounter
+     */
     @Override
     @Transactional(readOnly = true)
     @LogExecutionTime(value = "Get All Users with Pagination", logParams = true, logResult = true, threshold = 1000)
-    public PageResponse<UserResponse> getAllUsers(int page, int size) {
-        log.debug("Getting users with pagination - page: {}, size: {}", page, size);
-
+    public PageResponse<UserResponse> getAllUsers(int page, int size, CountStrategy countStrategy) {
+        CountStrategy strategy = countStrategy != null ? countStrategy : userCounter.getDefaultStrategy();
+        log.debug("Getting users with pagination - page: {}, size: {}, count: {}", page, size, strategy);
+        
         // Create pageable with sorting by ID descending (newest first)
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
         
-        // Get page from repository
-        Page<UserEntity> userPage = userRepository.findAll(pageable);
-        
-        // Convert entities to DTOs
-        List<UserResponse> userResponses = userPage.getContent().stream()
-            .map(userMapper::entityToResponse)
-            .collect(Collectors.toList());
+        // Get page of DTOs from repository
+        Slice<UserResponse> userSlice;
+        Long totalElements;
+        if (strategy == CountStrategy.EXACT) {
+            Page<UserResponse> userPage = userRepository.findResponses(pageable);
+            userSlice = userPage;
+            totalElements = userPage.getTotalElements();
+        } else {
+            userSlice = userRepository.findResponseSlice(pageable);
+            Long counted = userCounter.count(strategy);
+            totalElements = counted != null ? consistentTotal(userSlice, counted) : null;
+        }
         
         // Build page response
         return PageResponse.<UserResponse>builder()
-            .content(userResponses)
-            .pageNumber(userPage.getNumber())
-            .pageSize(userPage.getSize())
-            .totalElements(userPage.getTotalElements())
-            .totalPages(userPage.getTotalPages())
-            .first(userPage.isFirst())
-            .last(userPage.isLast())
-            .hasNext(userPage.hasNext())
-            .hasPrevious(userPage.hasPrevious())
+            .content(userSlice.getContent())
+            .pageNumber(userSlice.getNumber())
+            .pageSize(userSlice.getSize())
+            .totalElements(totalElements)
+            .totalPages(totalElements != null ? totalPages(totalElements, userSlice.getSize()) : null)
+            .countStrategy(strategy)
+            .first(userSlice.isFirst())
+            .last(userSlice.isLast())
+            .hasNext(userSlice.hasNext())
+            .hasPrevious(userSlice.hasPrevious())
+            // Lets offset clients continue in cursor mode
+            .nextCursor(userSlice.hasNext() && userSlice.hasContent()
+                ? UserCursor.encode(userSlice.getContent().get(userSlice.getNumberOfElements() - 1).getId())
+                : null)
             .build();
     }
     
+    /**
+     * Seeks with id < cursor instead of OFFSET, so every page costs the same, and reads one extra row
+     * to tell whether another page follows instead of running COUNT(*)
+     */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @LogExecutionTime(value = "Get Users by Cursor", logParams = true, threshold = 1000)
+    public PageResponse<UserResponse> getUsersAfter(String cursor, int size) {
+        log.debug("Getting users after cursor: {}, size: {}", cursor, size);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        boolean first = cursor == null || cursor.isEmpty();
+        Limit limit = Limit.of(size + 1);
+        List<UserResponse> users = first
+            ? userRepository.findNewestResponses(limit)
+            : userRepository.findResponsesBefore(UserCursor.decode(cursor), limit);
+        boolean hasNext = users.size() > size;
+        if (hasNext) {
+            users = users.subList(0, size);
+        }
+        
+        return PageResponse.<UserResponse>builder()
+            .content(users)
+            .pageSize(size)
+            .first(first)
+            .last(!hasNext)
+            .hasNext(hasNext)
+            .hasPrevious(!first)
+            .nextCursor(hasNext ? UserCursor.encode(users.get(size - 1).getId()) : null)
+            .build();
+    }
+    
+    /**
+     * Buffered - the timestamp is written with the next batch flush, not in this transaction;
+     * the flush invalidates the cached user on every node
+     */
+    @Override
+    @Transactional(readOnly = true)
     public void updateLastLogin(String username) {
         log.debug("Updating last login time for user: {}", username);
         
         UserEntity entity = userRepository.findByUsername(username)
             .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
         
-        entity.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(entity);
+        lastLoginBuffer.record(entity.getId(), LocalDateTime.now());
     }
     
     @Override
@@ -110,15 +254,8 @@ public class UserServiceImpl implements UserService {
         UserEntity entity = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User", id));
         
-        // Update email if provided
+        // Update email if provided (uniqueness enforced by idx_email on flush)
         if (request.getEmail() != null && !request.getEmail().isBlank()) {
-            // Check if email is already taken by another user
-            userRepository.findByEmail(request.getEmail()).ifPresent(existingUser -> {
-                if (!existingUser.getId().equals(id)) {
-                    throw new DuplicateResourceException("Email already exists: " + request.getEmail());
-                }
-            });
-            
             entity.setEmail(request.getEmail());
             log.info("Updated email for user ID {}: {}", id, request.getEmail());
         }
@@ -129,10 +266,92 @@ public class UserServiceImpl implements UserService {
             log.info("Updated phone for user ID {}: {}", id, request.getPhone());
         }
         
-        // Save updated entity
+        // Save updated entity - flushed here so a duplicate email surfaces inside this method
+        UserEntity updatedEntity;
+        try {
+            updatedEntity = userRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw UserConstraintViolations.translate(e, entity.getUsername(), request.getEmail());
+        }
+        
+        eventPublisher.publishEvent(
+            new UserChangedEvent(id, updatedEntity.getUsername(), UserChangedEvent.ChangeType.UPDATED)
+        );
+        if (request.getEmail() != null && !request.getEmail().isBlank()) {
+            eventPublisher.publishEvent(new UserKeysTakenEvent(List.of(updatedEntity.getEmail())));
+        }
+        
+        UserResponse response = userMapper.entityToResponse(updatedEntity);
+        RequestIdentityMap.put(response);
+        return response;
+    }
+    
+    @Override
+    @Transactional
+    @LogExecutionTime(value = "Update User Status", logParams = true)
+    public UserResponse updateStatus(Long id, UserStatus status) {
+        log.debug("Updating status for user ID {}: {}", id, status);
+        
+        UserEntity entity = userRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("User", id));
+        
+        entity.setStatus(status);
         UserEntity updatedEntity = userRepository.save(entity);
         
-        return userMapper.entityToResponse(updatedEntity);
+        // Lets the security layer drop tokens issued under the previous status
+        eventPublisher.publishEvent(
+            new UserChangedEvent(id, updatedEntity.getUsername(), UserChangedEvent.ChangeType.STATUS_CHANGED)
+        );
+        log.info("Updated status for user ID {}: {}", id, status);
+        
+        UserResponse response = userMapper.entityToResponse(updatedEntity);
+        RequestIdentityMap.put(response);
+        return response;
+    }
+    
+    private UserResponse loadUser(Long id) {
+        UserEntity user = userRepository.findById(id).orElse(null);
+        if (user == null) {
+            userMissCache.recordMissingId(id);
+            throw new ResourceNotFoundException("User", id);
+        }
+        return userMapper.entityToResponse(user);
+    }
+    
+    private UserResponse loadUser(String username) {
+        UserEntity user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            userMissCache.recordMissingUsername(username);
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+        return userMapper.entityToResponse(user);
+    }
+    
+    /**
+     * Keeps a cached or estimated total in line with what the page itself shows:
+     * exact on the last page, at least one past this page when there is a next one
+     */
+    private static long consistentTotal(Slice<?> slice, long counted) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        if (!slice.hasContent()) {
+            return counted;
+        }
+        return slice.hasNext() ? Math.max(counted, seen + 1) : seen;
+    }
+    
+    private List<UserResponse> loadUsersById(Collection<Long> ids) {
+        return userRepository.loadAllById(ids).stream().map(userMapper::entityToResponse).toList();
+    }
+    
+    private List<UserResponse> loadUsersByUsername(Collection<String> usernames) {
+        return userRepository.loadAllByUsername(usernames).stream().map(userMapper::entityToResponse).toList();
+    }
+    
+    private static String usernameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+    
+    private static int totalPages(long totalElements, int size) {
+        return (int) ((totalElements + size - 1) / size);
     }
 }
-
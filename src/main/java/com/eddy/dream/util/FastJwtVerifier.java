@@ -0,0 +1,416 @@
+package com.eddy.dream.util;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Low-allocation verifier for the tokens JwtUtil issues itself
+ *
+ * Verifies the HMAC over the raw token bytes with a per-thread Mac and scratch buffers,
+ * then extracts the known claims with a minimal JSON scanner - no header/claims maps are built.
+ *
+ * Anything outside the exact shape JwtUtil produces (other header, unknown claim, escaped strings,
+ * bad signature, expired token, ...) returns null, and the caller falls back to JJWT, which then
+ * accepts or rejects the token with its usual exceptions.
+ */
+public final class FastJwtVerifier {
+
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final byte[] CLAIM_SUB = ascii("sub");
+    private static final byte[] CLAIM_JTI = ascii("jti");
+    private static final byte[] CLAIM_IAT = ascii("iat");
+    private static final byte[] CLAIM_EXP = ascii("exp");
+    private static final byte[] CLAIM_UID = ascii("uid");
+    private static final byte[] CLAIM_STATUS = ascii("status");
+    private static final byte[] CLAIM_ROL = ascii("rol");
+    private static final byte[] CLAIM_ROLES = ascii("roles");
+    private static final byte[] FIELD_AUTHORITY = ascii("authority");
+    private static final byte[][] KNOWN_CLAIMS = {
+        CLAIM_SUB, CLAIM_JTI, CLAIM_IAT, CLAIM_EXP, CLAIM_UID, CLAIM_STATUS, CLAIM_ROL, CLAIM_ROLES
+    };
+
+    private static final int[] BASE64URL = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    /**
+     * Encoded header segment every accepted token must start with
+     */
+    private final String encodedHeader;
+
+    private final int macLength;
+
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * @param signingKey    HMAC key JwtUtil signs with
+     * @param encodedHeader exact Base64URL header segment of tokens JwtUtil issues
+     */
+    public FastJwtVerifier(SecretKey signingKey, String encodedHeader) {
+        this.encodedHeader = encodedHeader;
+        this.macLength = newMac(signingKey).getMacLength();
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac(signingKey), macLength));
+    }
+
+    /**
+     * Verify signature and expiry and extract the claims
+     *
+     * @return verified token, or null if the token must go through the full JJWT parser
+     */
+    public VerifiedToken verify(String token, long nowMillis) {
+        int length = token.length();
+        int headerEnd = encodedHeader.length();
+        if (length > MAX_TOKEN_LENGTH || length <= headerEnd
+            || token.charAt(headerEnd) != '.' || !token.startsWith(encodedHeader)) {
+            return null;
+        }
+
+        int payloadStart = headerEnd + 1;
+        int signatureStart = token.indexOf('.', payloadStart) + 1;
+        if (signatureStart <= payloadStart || token.indexOf('.', signatureStart) >= 0) {
+            return null;
+        }
+
+        Scratch s = scratch.get();
+
+        // HMAC over "header.payload" - Base64URL is pure ASCII, so chars map 1:1 to bytes
+        int signingInputLength = signatureStart - 1;
+        for (int i = 0; i < signingInputLength; i++) {
+            char c = token.charAt(i);
+            if (c >= 128) {
+                return null;
+            }
+            s.signingInput[i] = (byte) c;
+        }
+        try {
+            s.mac.update(s.signingInput, 0, signingInputLength);
+            s.mac.doFinal(s.expectedSignature, 0);
+        } catch (GeneralSecurityException e) {
+            s.mac.reset();
+            return null;
+        }
+
+        int signatureLength = decodeBase64Url(token, signatureStart, length, s.signature);
+        if (signatureLength != macLength || !constantTimeEquals(s.expectedSignature, s.signature, macLength)) {
+            return null;
+        }
+
+        int payloadLength = decodeBase64Url(token, payloadStart, signingInputLength, s.payload);
+        if (payloadLength <= 0) {
+            return null;
+        }
+
+        return new ClaimScanner(s.payload, payloadLength).scan(nowMillis);
+    }
+
+    /**
+     * Decode a Base64URL (unpadded) segment into the buffer
+     *
+     * @return decoded length, or -1 if the segment is not valid Base64URL or does not fit
+     */
+    private static int decodeBase64Url(String source, int start, int end, byte[] target) {
+        int chars = end - start;
+        if (chars % 4 == 1 || (chars * 3L) / 4 > target.length) {
+            return -1;
+        }
+
+        int bits = 0;
+        int bitCount = 0;
+        int written = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                target[written++] = (byte) (bits >> bitCount);
+            }
+        }
+        return written;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b, int length) {
+        int diff = 0;
+        for (int i = 0; i < length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    private static Mac newMac(SecretKey key) {
+        try {
+            Mac mac = Mac.getInstance(key.getAlgorithm());
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + key.getAlgorithm(), e);
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Per-thread reusable buffers
+     */
+    private static final class Scratch {
+
+        private final Mac mac;
+        private final byte[] signingInput = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] payload = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] signature;
+        private final byte[] expectedSignature;
+
+        private Scratch(Mac mac, int macLength) {
+            this.mac = mac;
+            this.signature = new byte[macLength + 3];
+            this.expectedSignature = new byte[macLength];
+        }
+    }
+
+    /**
+     * Minimal scanner for the flat claims object JwtUtil writes
+     * Returns null as soon as anything unexpected shows up
+     */
+    private static final class ClaimScanner {
+
+        private final byte[] json;
+        private final int end;
+        private int pos;
+
+        private String subject;
+        private String tokenId;
+        private String status;
+        private Long userId;
+        private long issuedAt = -1;
+        private long expiration = -1;
+        private long roleMask = -1;
+        private List<GrantedAuthority> legacyRoles = List.of();
+        private int seenClaims;
+
+        private ClaimScanner(byte[] json, int end) {
+            this.json = json;
+            this.end = end;
+        }
+
+        private VerifiedToken scan(long nowMillis) {
+            if (!consume('{')) {
+                return null;
+            }
+            if (!consume('}')) {
+                do {
+                    if (!readClaim()) {
+                        return null;
+                    }
+                } while (consume(','));
+                if (!consume('}')) {
+                    return null;
+                }
+            }
+            skipWhitespace();
+            if (pos != end || issuedAt < 0 || expiration < 0 || nowMillis >= expiration * 1000) {
+                return null;
+            }
+
+            return VerifiedToken.builder()
+                .tokenId(tokenId)
+                .subject(subject)
+                .userId(userId)
+                .status(status)
+                .issuedAt(Instant.ofEpochSecond(issuedAt))
+                .expiration(Instant.ofEpochSecond(expiration))
+                .authorities(roleMask >= 0 ? TokenRoles.decode(roleMask) : legacyRoles)
+                .build();
+        }
+
+        private boolean readClaim() {
+            int keyStart = stringStart();
+            int keyEnd = keyStart < 0 ? -1 : stringEnd(keyStart);
+            if (keyEnd < 0 || !consume(':')) {
+                return false;
+            }
+
+            if (!markSeen(keyStart, keyEnd)) {
+                // Duplicate claim - JJWT's JSON reader rejects these
+                return false;
+            }
+            
+            if (keyEquals(keyStart, keyEnd, CLAIM_SUB)) {
+                return (subject = readString()) != null;
+            } else if (keyEquals(keyStart, keyEnd, CLAIM_JTI)) {
+                return (tokenId = readString()) != null;
+            } else if (keyEquals(keyStart, keyEnd, CLAIM_STATUS)) {
+                return (status = readString()) != null;
+            } else if (keyEquals(keyStart, keyEnd, CLAIM_IAT)) {
+                return (issuedAt = readLong()) >= 0;
+            } else if (keyEquals(keyStart, keyEnd, CLAIM_EXP)) {
+                return (expiration = readLong()) >= 0;
+            } else if (keyEquals(keyStart, keyEnd, CLAIM_UID)) {
+                long uid = readLong();
+                userId = uid >= 0 ? uid : null;
+                return uid >= 0;
+            } else if (keyEquals(keyStart, keyEnd, CLAIM_ROL)) {
+                return (roleMask = readLong()) >= 0;
+            } else if (keyEquals(keyStart, keyEnd, CLAIM_ROLES)) {
+                return (legacyRoles = readRoles()) != null;
+            }
+            // Unknown claim (nbf, aud, ...) - let JJWT decide
+            return false;
+        }
+
+        /**
+         * Remember known claim names, false if the claim was already present
+         */
+        private boolean markSeen(int keyStart, int keyEnd) {
+            for (int i = 0; i < KNOWN_CLAIMS.length; i++) {
+                if (keyEquals(keyStart, keyEnd, KNOWN_CLAIMS[i])) {
+                    int bit = 1 << i;
+                    if ((seenClaims & bit) != 0) {
+                        return false;
+                    }
+                    seenClaims |= bit;
+                    return true;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Roles of tokens issued before the "rol" mask, as ["ROLE_X"] or [{"authority":"ROLE_X"}]
+         */
+        private List<GrantedAuthority> readRoles() {
+            if (!consume('[')) {
+                return null;
+            }
+            if (consume(']')) {
+                return List.of();
+            }
+            List<GrantedAuthority> values = new ArrayList<>(2);
+            do {
+                String role;
+                skipWhitespace();
+                if (pos < end && json[pos] == '{') {
+                    pos++;
+                    int keyStart = stringStart();
+                    int keyEnd = keyStart < 0 ? -1 : stringEnd(keyStart);
+                    if (keyEnd < 0 || !keyEquals(keyStart, keyEnd, FIELD_AUTHORITY) || !consume(':')) {
+                        return null;
+                    }
+                    role = readString();
+                    if (role == null || !consume('}')) {
+                        return null;
+                    }
+                } else {
+                    role = readString();
+                    if (role == null) {
+                        return null;
+                    }
+                }
+                values.add(TokenRoles.authority(role));
+            } while (consume(','));
+            return consume(']') ? List.copyOf(values) : null;
+        }
+
+        private String readString() {
+            int start = stringStart();
+            int stringEnd = start < 0 ? -1 : stringEnd(start);
+            return stringEnd < 0 ? null : new String(json, start, stringEnd - start, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Non-negative integer without sign, fraction or exponent, -1 otherwise
+         */
+        private long readLong() {
+            skipWhitespace();
+            int start = pos;
+            long value = 0;
+            while (pos < end && json[pos] >= '0' && json[pos] <= '9') {
+                value = value * 10 + (json[pos] - '0');
+                pos++;
+            }
+            int digits = pos - start;
+            if (digits == 0 || digits > 18 || (digits > 1 && json[start] == '0')) {
+                return -1;
+            }
+            if (pos < end && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E')) {
+                return -1;
+            }
+            return value;
+        }
+
+        /**
+         * Position after the opening quote, -1 if there is none
+         */
+        private int stringStart() {
+            skipWhitespace();
+            if (pos >= end || json[pos] != '"') {
+                return -1;
+            }
+            return ++pos;
+        }
+
+        /**
+         * Position of the closing quote, -1 for escapes or control characters
+         */
+        private int stringEnd(int start) {
+            for (int i = start; i < end; i++) {
+                byte b = json[i];
+                if (b == '"') {
+                    pos = i + 1;
+                    return i;
+                }
+                if (b == '\\' || (b >= 0 && b < 0x20)) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private boolean keyEquals(int start, int keyEnd, byte[] expected) {
+            if (keyEnd - start != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (json[start + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (pos < end && json[pos] == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+                pos++;
+            }
+        }
+    }
+}
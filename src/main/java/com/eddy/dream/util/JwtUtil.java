@@ -1,19 +1,32 @@
 package com.eddy.dream.util;
 
+import com.eddy.dream.config.security.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MissingClaimException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -23,6 +36,12 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     
+    private static final String ROLE_MASK_CLAIM = "rol";
+    
+    private static final String ROLES_CLAIM = "roles";
+    
+    private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
     @Value("${jwt.secret}")
     private String secret;
 
@@ -30,6 +49,77 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.fast-path.enabled:true}")
+    private boolean fastPathEnabled;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    private FastJwtVerifier fastJwtVerifier;
+
+    /**
+     * Build signing key and parser once - both are immutable and thread-safe
+     */
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+            .verifyWith(signingKey)
+            .build();
+        
+        if (fastPathEnabled) {
+            // The header segment is fixed for a given key, take it from a token we sign ourselves
+            String sample = Jwts.builder().subject("sample").signWith(signingKey).compact();
+            this.fastJwtVerifier = new FastJwtVerifier(signingKey, sample.substring(0, sample.indexOf('.')));
+        }
+    }
+
+    /**
+     * Parse and verify token once
+     * Tokens in the shape this class issues take the low-allocation fast path, everything else goes through JJWT
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with, expired, or has no iat or exp
+     */
+    public VerifiedToken verifyToken(String token) {
+        if (fastJwtVerifier != null) {
+            VerifiedToken verified = fastJwtVerifier.verify(token, System.currentTimeMillis());
+            if (verified != null) {
+                return verified;
+            }
+        }
+        return verifyTokenWithParser(token);
+    }
+    
+    /**
+     * Parse and verify token with the full JJWT parser
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with, expired, or has no iat or exp
+     */
+    public VerifiedToken verifyTokenWithParser(String token) {
+        Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+        Claims claims = jws.getPayload();
+        return VerifiedToken.builder()
+            .tokenId(claims.getId())
+            .subject(claims.getSubject())
+            .userId(claims.get("uid") instanceof Number uid ? uid.longValue() : null)
+            .status(claims.get("status", String.class))
+            .issuedAt(requireDate(jws, Claims.ISSUED_AT, claims.getIssuedAt()))
+            .expiration(requireDate(jws, Claims.EXPIRATION, claims.getExpiration()))
+            .authorities(extractAuthorities(claims))
+            .build();
+    }
+    
+    /**
+     * JJWT accepts tokens without iat or exp, but cutoffs and revocation need both
+     */
+    private static Instant requireDate(Jws<Claims> jws, String claimName, Date value) {
+        if (value == null) {
+            throw new MissingClaimException(jws.getHeader(), jws.getPayload(), claimName, null,
+                "Token has no '" + claimName + "' claim");
+        }
+        return value.toInstant();
+    }
     
     /**
      * Get username from token
@@ -57,19 +147,33 @@ public class JwtUtil {
      * Get all claims from token
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
+        return jwtParser
             .parseSignedClaims(token)
             .getPayload();
     }
     
     /**
-     * Check if token is expired
+     * Extract authorities from the "rol" mask, or from the "roles" list of tokens issued before it
+     * Legacy roles are serialized either as plain strings or as {"authority": "..."} objects
      */
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private List<GrantedAuthority> extractAuthorities(Claims claims) {
+        Object roleMask = claims.get(ROLE_MASK_CLAIM);
+        if ((roleMask instanceof Integer || roleMask instanceof Long) && ((Number) roleMask).longValue() >= 0) {
+            return TokenRoles.decode(((Number) roleMask).longValue());
+        }
+        if (!(claims.get(ROLES_CLAIM) instanceof Collection<?> values)) {
+            return List.of();
+        }
+        
+        List<GrantedAuthority> authorities = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value instanceof Map<?, ?> map && map.get("authority") != null) {
+                authorities.add(TokenRoles.authority(map.get("authority").toString()));
+            } else if (value instanceof String role) {
+                authorities.add(TokenRoles.authority(role));
+            }
+        }
+        return List.copyOf(authorities);
     }
     
     /**
@@ -77,7 +181,18 @@ public class JwtUtil {
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", userDetails.getAuthorities());
+        int roleMask = TokenRoles.encode(userDetails.getAuthorities());
+        if (roleMask >= 0) {
+            claims.put(ROLE_MASK_CLAIM, roleMask);
+        } else {
+            // Role outside the table - carry plain names instead of serialized authority objects
+            claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        }
+        // Identity claims allow stateless authentication without a user lookup
+        if (userDetails instanceof AuthenticatedUser user) {
+            claims.put("uid", user.getId());
+            claims.put("status", user.getStatus().name());
+        }
         return doGenerateToken(claims, userDetails.getUsername());
     }
     
@@ -90,13 +205,26 @@ public class JwtUtil {
         
         return Jwts.builder()
             .claims(claims)
+            .id(newTokenId())
             .subject(subject)
             .issuedAt(createdDate)
             .expiration(expirationDate)
-            .signWith(getSigningKey())
+            .signWith(signingKey)
             .compact();
     }
     
+    /**
+     * Random 128-bit token ID as unpadded Base64URL - 22 characters instead of 36 for the UUID string
+     */
+    private static String newTokenId() {
+        UUID uuid = UUID.randomUUID();
+        byte[] bytes = ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+        return TOKEN_ID_ENCODER.encodeToString(bytes);
+    }
+    
     /**
      * Calculate expiration date
      */
@@ -109,8 +237,7 @@ public class JwtUtil {
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = getUsernameFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateToken(verifyToken(token), userDetails);
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
             return false;
@@ -118,11 +245,12 @@ public class JwtUtil {
     }
     
     /**
-     * Get signing key
+     * Validate an already verified token against the loaded user
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+            && token.getSubject().equals(userDetails.getUsername())
+            && !token.isExpiredAt(Instant.now());
     }
 
 }
@@ -0,0 +1,88 @@
+package com.eddy.dream.util;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact role encoding for the "rol" token claim
+ *
+ * Each known role is one bit. Decoding returns shared, precomputed authority lists,
+ * so no GrantedAuthority is allocated per request.
+ * New roles must be appended - the bit position of a role is part of every issued token.
+ */
+public final class TokenRoles {
+
+    private static final List<String> ROLES = List.of(
+        "ROLE_USER",
+        "ROLE_ADMIN"
+    );
+
+    private static final int KNOWN_MASK = (1 << ROLES.size()) - 1;
+
+    /**
+     * Authority lists indexed by role mask
+     */
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK;
+
+    private static final List<GrantedAuthority> SINGLE_AUTHORITIES;
+
+    static {
+        List<GrantedAuthority> single = new ArrayList<>(ROLES.size());
+        for (String role : ROLES) {
+            single.add(new SimpleGrantedAuthority(role));
+        }
+        SINGLE_AUTHORITIES = List.copyOf(single);
+
+        List<List<GrantedAuthority>> byMask = new ArrayList<>(KNOWN_MASK + 1);
+        for (int mask = 0; mask <= KNOWN_MASK; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (int bit = 0; bit < ROLES.size(); bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    authorities.add(SINGLE_AUTHORITIES.get(bit));
+                }
+            }
+            byMask.add(List.copyOf(authorities));
+        }
+        AUTHORITIES_BY_MASK = List.copyOf(byMask);
+    }
+
+    private TokenRoles() {
+    }
+
+    /**
+     * Encode authorities as a role mask
+     *
+     * @return role mask, or -1 if any authority is not in the table
+     */
+    public static int encode(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            int bit = ROLES.indexOf(authority.getAuthority());
+            if (bit < 0) {
+                return -1;
+            }
+            mask |= 1 << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Shared authority list for a role mask
+     * Bits this build does not know are ignored, so a role added later grants nothing here
+     */
+    public static List<GrantedAuthority> decode(long mask) {
+        return AUTHORITIES_BY_MASK.get((int) (mask & KNOWN_MASK));
+    }
+
+    /**
+     * Shared authority for a known role name, a new one otherwise
+     */
+    public static GrantedAuthority authority(String role) {
+        int bit = ROLES.indexOf(role);
+        return bit >= 0 ? SINGLE_AUTHORITIES.get(bit) : new SimpleGrantedAuthority(role);
+    }
+}
@@ -0,0 +1,40 @@
+package com.eddy.dream.util;
+
+import com.eddy.dream.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for user listings - the last user ID of a page
+ * Clients pass it back unchanged; the encoding is free to change.
+ */
+public final class UserCursor {
+    
+    private static final String PREFIX = "id:";
+    
+    private UserCursor() {
+    }
+    
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    /**
+     * Last user ID of the previous page
+     * 
+     * @throws BusinessException if the cursor was not issued by encode
+     */
+    public static long decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (value.startsWith(PREFIX)) {
+                return Long.parseLong(value.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64 or not a number - rejected below
+        }
+        throw new BusinessException("Invalid cursor");
+    }
+}
@@ -0,0 +1,67 @@
+package com.eddy.dream.util;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of a single parse + signature verification of a JWT.
+ * Everything the security layer needs is read from here instead of re-parsing the token.
+ */
+@Value
+@Builder
+public class VerifiedToken {
+
+    /**
+     * Token ID ("jti" claim), null for tokens issued without it
+     */
+    String tokenId;
+
+    /**
+     * Token subject (username)
+     */
+    String subject;
+
+    /**
+     * User ID ("uid" claim), null for tokens issued without it
+     */
+    Long userId;
+
+    /**
+     * Account status at issue time ("status" claim), null for tokens issued without it
+     */
+    String status;
+
+    /**
+     * Issued-at time (second precision)
+     */
+    Instant issuedAt;
+
+    /**
+     * Expiration time (second precision)
+     */
+    Instant expiration;
+
+    /**
+     * Authorities carried by the token - shared instances from TokenRoles, safe to hand to Spring Security as-is
+     */
+    @Builder.Default
+    List<GrantedAuthority> authorities = List.of();
+
+    /**
+     * Check if the token carries everything needed to authenticate without a user lookup
+     */
+    public boolean isSelfContained() {
+        return userId != null && status != null;
+    }
+
+    /**
+     * Check if the token is expired at the given instant
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiration.isAfter(now);
+    }
+}
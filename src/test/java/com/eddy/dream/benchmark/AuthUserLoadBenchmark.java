@@ -0,0 +1,141 @@
+package com.eddy.dream.benchmark;
+
+import com.eddy.dream.DreamApplication;
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.repository.projection.UserCredentials;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User load on the authentication path (user details cache miss), 8 concurrent threads against in-memory H2
+ *
+ * managedEntity  - read-only transaction, JPQL query hydrates a managed UserEntity
+ * projection     - JPQL constructor expression selects id, username, password, status into a record
+ * naturalIdCache - current path: findByUsername natural-id load, served from the second-level cache
+ *
+ * H2 keeps the JDBC round-trip out of the picture, so the difference is the ORM-side work per request;
+ * against MySQL the cache additionally saves the round trip.
+ * Run: java -cp <test classpath> com.eddy.dream.benchmark.AuthUserLoadBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthUserLoadBenchmark {
+
+    private static final int USERS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private String[] usernames;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(DreamApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:auth-bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=8",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.eddy.dream=WARN"
+            );
+        userRepository = context.getBean(UserRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<UserEntity> users = new ArrayList<>(USERS);
+        usernames = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            usernames[i] = "bench_user_" + i;
+            users.add(UserEntity.builder()
+                .username(usernames[i])
+                .email(usernames[i] + "@example.com")
+                .phone("0912345678")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOa5pVBeGh0rWv8U1uWE2Yx4kQf8CzY1e")
+                .status(UserStatus.ACTIVE)
+                .build());
+        }
+        userRepository.saveAll(users);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails managedEntity() {
+        String username = nextUsername();
+        return readOnlyTransaction.execute(status -> {
+            UserEntity user = entityManager
+                .createQuery("SELECT u FROM UserEntity u WHERE u.username = :username", UserEntity.class)
+                .setParameter("username", username)
+                .getSingleResult();
+            return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getStatus(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        });
+    }
+
+    @Benchmark
+    public UserDetails projection() {
+        UserCredentials user = entityManager
+            .createQuery("SELECT new com.eddy.dream.repository.projection.UserCredentials(u.id, u.username, "
+                + "u.password, u.status) FROM UserEntity u WHERE u.username = :username", UserCredentials.class)
+            .setParameter("username", nextUsername())
+            .getSingleResult();
+        return new AuthenticatedUser(user.id(), user.username(), user.password(), user.status(),
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Benchmark
+    public UserDetails naturalIdCache() {
+        UserEntity user = userRepository.findByUsername(nextUsername()).orElseThrow();
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getStatus(),
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private String nextUsername() {
+        return usernames[ThreadLocalRandom.current().nextInt(USERS)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(AuthUserLoadBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
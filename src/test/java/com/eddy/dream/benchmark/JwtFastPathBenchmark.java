@@ -0,0 +1,66 @@
+package com.eddy.dream.benchmark;
+
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.util.JwtUtil;
+import com.eddy.dream.util.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT verification: JJWT parser vs the fast-path verifier
+ *
+ * jjwtParser - JwtUtil.verifyTokenWithParser, the general-purpose JJWT path
+ * fastPath   - JwtUtil.verifyToken with jwt.fast-path.enabled=true
+ *
+ * Run with "-prof gc" to compare gc.alloc.rate.norm (bytes per verification).
+ * Run: java -cp <test classpath> com.eddy.dream.benchmark.JwtFastPathBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFastPathBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JwtVerificationBenchmark.SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400L);
+        ReflectionTestUtils.setField(jwtUtil, "fastPathEnabled", true);
+        jwtUtil.init();
+
+        token = jwtUtil.generateToken(new AuthenticatedUser(1L, "benchmark_user", "encodedPassword",
+            UserStatus.ACTIVE, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @Benchmark
+    public VerifiedToken jjwtParser() {
+        return jwtUtil.verifyTokenWithParser(token);
+    }
+
+    @Benchmark
+    public VerifiedToken fastPath() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtFastPathBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.eddy.dream.benchmark;
+
+import com.eddy.dream.util.JwtUtil;
+import com.eddy.dream.util.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT verification cost per authenticated request
+ *
+ * legacyTriplePath - what JwtAuthenticationFilter used to do: three full parses, each with a new parser and key
+ * singleParsePath  - JwtUtil.verifyToken with the startup-built parser, result reused for validation
+ *
+ * Run: java -cp <test classpath> com.eddy.dream.benchmark.JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    static final String SECRET = "MyVerySecretKeyForJWTTokenGenerationAndValidation2024DreamApplicationSecure";
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400L);
+        jwtUtil.init();
+
+        userDetails = new User("benchmark_user", "encodedPassword",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyTriplePath() {
+        String username = legacyClaims(token).getSubject();
+        // validateToken: subject again + expiration
+        boolean matches = legacyClaims(token).getSubject().equals(userDetails.getUsername());
+        Date expiration = legacyClaims(token).getExpiration();
+        return username != null && matches && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParsePath() {
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+        return verified.getSubject() != null && jwtUtil.validateToken(verified, userDetails);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+            .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseSignedClaims(token)
+            .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtVerificationBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,139 @@
+package com.eddy.dream.benchmark;
+
+import com.eddy.dream.DreamApplication;
+import com.eddy.dream.config.id.UserIdGenerator;
+import com.eddy.dream.config.security.BCryptCalibration;
+import com.eddy.dream.dto.response.UserImportSummary;
+import com.eddy.dream.service.UserImportService;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.impl.UserImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import throughput in rows per second (one op = one row), in-memory H2
+ *
+ * Rows carry a pre-hashed password, so the numbers are parsing, validation, the duplicate check and the inserts;
+ * with plain passwords the import runs at roughly hashing threads x (1000 / BCrypt ms per hash) rows per second.
+ * batchSize=1 is the row-at-a-time baseline, 1000 the default batch.
+ * Run: java -cp <test classpath> com.eddy.dream.benchmark.UserImportBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(UserImportBenchmark.ROWS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserImportBenchmark {
+
+    static final int ROWS = 10_000;
+
+    private static final String HASH = new BCryptPasswordEncoder(4).encode("Password123!");
+
+    @Param({"NDJSON", "CSV"})
+    private UserImportService.Format format;
+
+    @Param({"1", "1000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UserImportServiceImpl userImportService;
+    private int invocation;
+    private byte[] input;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(DreamApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:import-bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--password.bcrypt.strength=4",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.eddy.dream=WARN"
+            );
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userImportService = new UserImportServiceImpl(
+            jdbcTemplate,
+            context.getBean(PlatformTransactionManager.class),
+            context.getBean(UserIdGenerator.class),
+            context,
+            context.getBean(EntityManagerFactory.class),
+            context.getBean(UserMissCache.class),
+            context.getBean(Validator.class),
+            context.getBean(ObjectMapper.class),
+            BCryptCalibration.fixed(4),
+            new SimpleMeterRegistry(),
+            batchSize,
+            0
+        );
+    }
+
+    @Setup(Level.Iteration)
+    public void clearUsers() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareInput() {
+        String prefix = "u" + invocation++ + "_";
+        StringBuilder builder = new StringBuilder(ROWS * 120);
+        if (format == UserImportService.Format.CSV) {
+            builder.append("username,email,passwordHash\n");
+        }
+        for (int i = 0; i < ROWS; i++) {
+            String username = prefix + i;
+            if (format == UserImportService.Format.CSV) {
+                builder.append(username).append(',').append(username).append("@example.com,").append(HASH).append('\n');
+            } else {
+                builder.append("{\"username\":\"").append(username)
+                    .append("\",\"email\":\"").append(username)
+                    .append("@example.com\",\"passwordHash\":\"").append(HASH).append("\"}\n");
+            }
+        }
+        input = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        userImportService.shutdown();
+        context.close();
+    }
+
+    @Benchmark
+    public UserImportSummary importUsers() {
+        return userImportService.importUsers(new ByteArrayInputStream(input), format, result -> { });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(UserImportBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.eddy.dream.benchmark;
+
+import com.eddy.dream.DreamApplication;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.repository.UserRepository;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA insert throughput in rows per second (one op = one row) per user ID strategy, in-memory H2
+ *
+ * Each invocation saves 1000 new users in one transaction with hibernate.jdbc.batch_size=50.
+ * time-ordered and pooled assign the ID before the INSERT, so Hibernate batches the statements;
+ * IDENTITY (the previous mapping) has to execute every INSERT on its own to read the generated key.
+ * database=tcp reaches H2 through a loopback TCP server, so every statement pays a network round trip,
+ * as with MySQL; database=in-process has no round trip at all.
+ * Run: java -cp <test classpath> com.eddy.dream.benchmark.UserInsertBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(UserInsertBenchmark.ROWS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserInsertBenchmark {
+
+    static final int ROWS = 1000;
+
+    @Param({"time-ordered", "pooled"})
+    private String strategy;
+
+    @Param({"in-process", "tcp"})
+    private String database;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+    private int invocation;
+    private List<UserEntity> users;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:insert-bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        if (database.equals("tcp")) {
+            server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:insert-bench;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        }
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(DreamApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--user.id.strategy=" + strategy,
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.eddy.dream=WARN"
+            );
+        userRepository = context.getBean(UserRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearUsers() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareUsers() {
+        String prefix = "i" + invocation++ + "_";
+        users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            users.add(UserEntity.builder()
+                .username(prefix + i)
+                .email(prefix + i + "@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOa5pVBeGh0rWv8U1uWE2Yx4kQf8CzY1e")
+                .status(UserStatus.ACTIVE)
+                .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public List<UserEntity> saveAll() {
+        return userRepository.saveAll(users);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(UserInsertBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.eddy.dream.benchmark;
+
+import com.eddy.dream.DreamApplication;
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.mapper.UserMapper;
+import com.eddy.dream.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of 100 users for GET /api/users (exact count), in-memory H2
+ *
+ * managedEntity - previous path: findAll hydrates 100 managed UserEntity instances (plus their
+ *                 dirty-checking snapshots), then UserMapper copies each into a UserResponse
+ * projection    - findResponses selects straight into UserResponse through a constructor expression
+ *
+ * Both run in a read-only transaction, as the service does. Allocation per page is reported by the GC profiler
+ * (gc.alloc.rate.norm, bytes per operation).
+ * Run: java -cp <test classpath> com.eddy.dream.benchmark.UserReadBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserReadBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(DreamApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:read-bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.eddy.dream=WARN"
+            );
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<UserEntity> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(UserEntity.builder()
+                .username("bench_user_" + i)
+                .email("bench_user_" + i + "@example.com")
+                .phone("0912345678")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOa5pVBeGh0rWv8U1uWE2Yx4kQf8CzY1e")
+                .status(UserStatus.ACTIVE)
+                .build());
+        }
+        userRepository.saveAll(users);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserResponse> managedEntity() {
+        Pageable pageable = nextPage();
+        return readOnlyTransaction.execute(status -> {
+            Page<UserEntity> page = userRepository.findAll(pageable);
+            return page.getContent().stream().map(userMapper::entityToResponse).toList();
+        });
+    }
+
+    @Benchmark
+    public List<UserResponse> projection() {
+        Pageable pageable = nextPage();
+        return readOnlyTransaction.execute(status -> userRepository.findResponses(pageable).getContent());
+    }
+
+    private static Pageable nextPage() {
+        int page = ThreadLocalRandom.current().nextInt(USERS / PAGE_SIZE);
+        return PageRequest.of(page, PAGE_SIZE, Sort.by("id").descending());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(UserReadBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.eddy.dream.config.id;
+
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pooled user IDs against H2 - block reservation, seeding and batched JPA inserts
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "user.id.strategy=pooled",
+    "user.id.pool-size=4"
+})
+@Import(PooledUserIdGenerator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PooledUserIdGeneratorTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("saveAll - IDs assigned up front, INSERTs sent as one batch")
+    void testSaveAllBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UserEntity> saved = userRepository.saveAll(IntStream.range(0, 10)
+            .mapToObj(i -> UserEntity.builder()
+                .username("pooled" + i)
+                .email("pooled" + i + "@example.com")
+                .password("encoded")
+                .status(UserStatus.ACTIVE)
+                .build())
+            .toList());
+
+        List<Long> ids = saved.stream().map(UserEntity::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(10, new HashSet<>(ids).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10, userRepository.count());
+    }
+
+    @Test
+    @DisplayName("Generators sharing the sequence never hand out the same ID")
+    void testBlocksDoNotOverlap() {
+        PooledUserIdGenerator first = new PooledUserIdGenerator(dataSource, 3);
+        PooledUserIdGenerator second = new PooledUserIdGenerator(dataSource, 5);
+        Set<Long> ids = new HashSet<>();
+        List<Long> fromFirst = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            long id = first.nextId();
+            fromFirst.add(id);
+            assertTrue(ids.add(id));
+            assertTrue(ids.add(second.nextId()));
+        }
+
+        assertEquals(fromFirst.stream().sorted().toList(), fromFirst);
+    }
+
+    @Test
+    @DisplayName("New sequence starts after the highest existing user ID")
+    void testSeededPastExistingIds() {
+        jdbcTemplate.update("DROP TABLE IF EXISTS user_id_sequence");
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, status, created_at) "
+            + "VALUES (1000, 'legacy', 'legacy@example.com', 'encoded', 'ACTIVE', CURRENT_TIMESTAMP)");
+
+        assertEquals(1001, new PooledUserIdGenerator(dataSource, 3).nextId());
+        assertEquals(1004, new PooledUserIdGenerator(dataSource, 3).nextId());
+    }
+}
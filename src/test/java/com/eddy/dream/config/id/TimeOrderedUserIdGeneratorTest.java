@@ -0,0 +1,89 @@
+package com.eddy.dream.config.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimeOrderedUserIdGenerator Unit Tests
+ */
+class TimeOrderedUserIdGeneratorTest {
+
+    private static final long NOW = TimeOrderedUserIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    @DisplayName("Layout - timestamp, node id and counter")
+    void testLayout() {
+        TimeOrderedUserIdGenerator generator = generator(5, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertEquals(1_000_000L, first >>> TimeOrderedUserIdGenerator.TIMESTAMP_SHIFT);
+        assertEquals(5, (first >>> TimeOrderedUserIdGenerator.SEQUENCE_BITS) & TimeOrderedUserIdGenerator.MAX_NODE_ID);
+        assertEquals(0, first & TimeOrderedUserIdGenerator.SEQUENCE_MASK);
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    @DisplayName("IDs stay JSON-safe (below 2^53) for the next decades")
+    void testBelowDoublePrecision() {
+        long in2090 = TimeOrderedUserIdGenerator.EPOCH_MILLIS + 65L * 365 * 24 * 3600 * 1000;
+        TimeOrderedUserIdGenerator generator = generator(15, () -> in2090);
+
+        assertTrue(generator.nextId() < (1L << 53));
+    }
+
+    @Test
+    @DisplayName("Counter exhausted or clock stepping back - IDs keep increasing")
+    void testMonotonic() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedUserIdGenerator generator = generator(3, clock::get);
+        Set<Long> ids = new HashSet<>();
+        long last = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            if (i == 600) {
+                clock.addAndGet(-5_000);
+            }
+            long id = generator.nextId();
+            assertTrue(id > last);
+            assertEquals(3, (id >>> TimeOrderedUserIdGenerator.SEQUENCE_BITS) & TimeOrderedUserIdGenerator.MAX_NODE_ID);
+            ids.add(id);
+            last = id;
+        }
+
+        assertEquals(1000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Later clock - larger ID, across nodes")
+    void testTimeOrderedAcrossNodes() {
+        long early = generator(15, () -> NOW).nextId();
+        long later = generator(0, () -> NOW + 1).nextId();
+
+        assertTrue(later > early);
+    }
+
+    @Test
+    @DisplayName("Node id out of range")
+    void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedUserIdGenerator(16));
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedUserIdGenerator(-1));
+    }
+
+    private static TimeOrderedUserIdGenerator generator(int nodeId, LongSupplier clock) {
+        return new TimeOrderedUserIdGenerator(nodeId) {
+            @Override
+            long currentTimeMillis() {
+                return clock.getAsLong();
+            }
+        };
+    }
+}
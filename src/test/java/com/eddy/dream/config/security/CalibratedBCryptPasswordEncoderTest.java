@@ -0,0 +1,49 @@
+package com.eddy.dream.config.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder.BCryptVersion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    private final CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(BCryptVersion.$2A, 5);
+
+    @Test
+    @DisplayName("Upgrade encoding - current version and cost kept")
+    void testCurrentHashKept() {
+        assertFalse(encoder.upgradeEncoding(encoder.encode("Password123!")));
+    }
+
+    @Test
+    @DisplayName("Upgrade encoding - lower cost rehashed")
+    void testLowerCostRehashed() {
+        assertTrue(encoder.upgradeEncoding(BCrypt.hashpw("Password123!", BCrypt.gensalt("$2a", 4))));
+    }
+
+    @Test
+    @DisplayName("Upgrade encoding - higher cost kept")
+    void testHigherCostKept() {
+        assertFalse(encoder.upgradeEncoding(BCrypt.hashpw("Password123!", BCrypt.gensalt("$2a", 6))));
+    }
+
+    @Test
+    @DisplayName("Upgrade encoding - other version or algorithm rehashed")
+    void testOtherVersionRehashed() {
+        assertTrue(encoder.upgradeEncoding(BCrypt.hashpw("Password123!", BCrypt.gensalt("$2b", 5))));
+        assertTrue(encoder.upgradeEncoding("{noop}Password123!"));
+        assertFalse(encoder.upgradeEncoding(""));
+    }
+
+    @Test
+    @DisplayName("Calibration - strength stays within bounds")
+    void testCalibrationBounds() {
+        BCryptCalibration calibration = BCryptCalibration.calibrate(1, 4, 6);
+
+        assertEquals(4, calibration.getStrength());
+        assertFalse(calibration.isFixed());
+        assertTrue(calibration.getMeasuredMillis() > 0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.config.security.revocation.TokenRevocationService;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.util.JwtUtil;
+import com.eddy.dream.util.TokenRoles;
+import com.eddy.dream.util.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationResolverTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenAuthenticationCache tokenAuthenticationCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private TokenCutoffRegistry tokenCutoffRegistry;
+
+    private JwtAuthenticationResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        tokenCutoffRegistry = new TokenCutoffRegistry();
+        ReflectionTestUtils.setField(tokenCutoffRegistry, "expiration", 3600L);
+        resolver = new JwtAuthenticationResolver(
+            jwtUtil, userDetailsService, tokenCutoffRegistry, tokenAuthenticationCache, tokenRevocationService);
+        ReflectionTestUtils.setField(resolver, "statelessAuth", true);
+    }
+
+    @Test
+    @DisplayName("Stateless - principal built from the claims, no user lookup, cached")
+    void testStatelessFromClaims() {
+        VerifiedToken token = token("alice", 1L, "ACTIVE");
+        when(jwtUtil.verifyToken("raw")).thenReturn(token);
+        when(jwtUtil.validateToken(eq(token), any(UserDetails.class))).thenReturn(true);
+
+        UserDetails principal = resolver.resolve("raw");
+
+        AuthenticatedUser user = assertInstanceOf(AuthenticatedUser.class, principal);
+        assertEquals(1L, user.getId());
+        assertEquals("alice", user.getUsername());
+        assertEquals(UserStatus.ACTIVE, user.getStatus());
+        assertEquals(TokenRoles.decode(1), List.copyOf(user.getAuthorities()));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(tokenAuthenticationCache).put("raw", token, principal);
+    }
+
+    @Test
+    @DisplayName("Stateless - locked status in the claims rejected without a lookup")
+    void testStatelessLocked() {
+        assertNull(resolver.resolve(token("alice", 1L, "LOCKED")));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Stateless - token issued before the user's cutoff rejected")
+    void testStatelessBeforeCutoff() {
+        VerifiedToken token = token("alice", 1L, "ACTIVE");
+        tokenCutoffRegistry.revokeIssuedBefore("alice", token.getIssuedAt().plusSeconds(1));
+
+        assertNull(resolver.resolve(token));
+        verify(jwtUtil, never()).validateToken(any(VerifiedToken.class), any());
+    }
+
+    @Test
+    @DisplayName("Token without identity claims, or lookup mode - user loaded through UserDetailsService")
+    void testLookup() {
+        UserDetails loaded = new AuthenticatedUser(1L, "alice", "", UserStatus.ACTIVE, AuthenticatedUser.DEFAULT_AUTHORITIES);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(loaded);
+        when(jwtUtil.validateToken(any(VerifiedToken.class), eq(loaded))).thenReturn(true);
+
+        assertSame(loaded, resolver.resolve(token("alice", null, null)));
+        ReflectionTestUtils.setField(resolver, "statelessAuth", false);
+        assertSame(loaded, resolver.resolve(token("alice", 1L, "ACTIVE")));
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+    }
+
+    private static VerifiedToken token(String username, Long userId, String status) {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return VerifiedToken.builder()
+            .subject(username)
+            .userId(userId)
+            .status(status)
+            .issuedAt(issuedAt)
+            .expiration(issuedAt.plusSeconds(3600))
+            .authorities(TokenRoles.decode(1))
+            .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.repository.projection.PasswordHashPrefixCount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingEndpointTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Report - lower costs and other versions pending, higher costs not; counts cached")
+    void testPasswordHashing() {
+        when(userRepository.countPasswordHashPrefixes()).thenReturn(List.of(
+            new PasswordHashPrefixCount("$2a$10$", 3L),
+            new PasswordHashPrefixCount("$2a$12$", 5L),
+            new PasswordHashPrefixCount("$2a$13$", 7L),
+            new PasswordHashPrefixCount("$2b$12$", 11L)
+        ));
+        PasswordHashingEndpoint endpoint = new PasswordHashingEndpoint(BCryptCalibration.fixed(12), userRepository, 300);
+
+        Map<String, Object> first = endpoint.passwordHashing();
+        Map<String, Object> second = endpoint.passwordHashing();
+
+        assertEquals("$2a$12$", first.get("currentPrefix"));
+        assertEquals(14L, first.get("pendingRehash"));
+        assertEquals(first.get("storedHashes"), second.get("storedHashes"));
+        verify(userRepository, times(1)).countPasswordHashPrefixes();
+    }
+
+    @Test
+    @DisplayName("Report - counted again once the TTL has passed")
+    void testPasswordHashingExpired() {
+        when(userRepository.countPasswordHashPrefixes()).thenReturn(List.of());
+        PasswordHashingEndpoint endpoint = new PasswordHashingEndpoint(BCryptCalibration.fixed(12), userRepository, 0);
+
+        endpoint.passwordHashing();
+        endpoint.passwordHashing();
+
+        verify(userRepository, times(2)).countPasswordHashPrefixes();
+    }
+}
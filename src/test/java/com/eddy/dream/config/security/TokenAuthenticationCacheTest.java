@@ -0,0 +1,148 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.config.security.revocation.TokenRevocationService;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.util.JwtUtil;
+import com.eddy.dream.util.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verified token cache; user changes applied through real (H2) transactions
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({TokenAuthenticationCache.class, TimeOrderedUserIdGenerator.class, TokenAuthenticationCacheTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenAuthenticationCacheTest {
+
+    @Autowired
+    private TokenAuthenticationCache tokenAuthenticationCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        tokenAuthenticationCache.evictUser("alice");
+        tokenAuthenticationCache.evictUser("bob");
+    }
+
+    @Test
+    @DisplayName("Entry - served until the token's exp, gone after")
+    void testExpiresAtTokenExpiry() {
+        AtomicLong nanos = new AtomicLong();
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(new SimpleMeterRegistry(), true, 100, nanos::get);
+        VerifiedToken token = token("t1", "alice", Instant.now().plusSeconds(60));
+        cache.put("raw-1", token, user("alice"));
+
+        nanos.addAndGet(Duration.ofSeconds(55).toNanos());
+        assertNotNull(cache.get("raw-1"));
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertNull(cache.get("raw-1"));
+    }
+
+    @Test
+    @DisplayName("Evict user - every token of the user dropped, other users' kept")
+    void testEvictUser() {
+        tokenAuthenticationCache.put("raw-1", token("t1", "alice", Instant.now().plusSeconds(60)), user("alice"));
+        tokenAuthenticationCache.put("raw-2", token("t2", "alice", Instant.now().plusSeconds(60)), user("alice"));
+        tokenAuthenticationCache.put("raw-3", token("t3", "bob", Instant.now().plusSeconds(60)), user("bob"));
+
+        tokenAuthenticationCache.evictUser("alice");
+
+        assertNull(tokenAuthenticationCache.get("raw-1"));
+        assertNull(tokenAuthenticationCache.get("raw-2"));
+        assertNotNull(tokenAuthenticationCache.get("raw-3"));
+    }
+
+    @Test
+    @DisplayName("Revoked token - not served from the cache")
+    void testRevokedNotServed() {
+        VerifiedToken token = token("t1", "alice", Instant.now().plusSeconds(60));
+        tokenAuthenticationCache.put("raw-1", token, user("alice"));
+        TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        TokenCutoffRegistry tokenCutoffRegistry = mock(TokenCutoffRegistry.class);
+        JwtAuthenticationResolver resolver = new JwtAuthenticationResolver(jwtUtil, mock(UserDetailsService.class),
+            tokenCutoffRegistry, tokenAuthenticationCache, tokenRevocationService);
+
+        assertNotNull(resolver.resolve("raw-1"));
+        when(tokenRevocationService.isRevoked(token)).thenReturn(true);
+
+        assertNull(resolver.resolve("raw-1"));
+        verify(jwtUtil, never()).verifyToken("raw-1");
+    }
+
+    @Test
+    @DisplayName("User change - entries evicted once committed, not before, not on rollback")
+    void testUserChangedAfterCommit() {
+        tokenAuthenticationCache.put("raw-1", token("t1", "alice", Instant.now().plusSeconds(60)), user("alice"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new UserChangedEvent(1L, "alice", UserChangedEvent.ChangeType.UPDATED));
+            status.setRollbackOnly();
+        });
+        assertNotNull(tokenAuthenticationCache.get("raw-1"));
+
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new UserChangedEvent(1L, "alice", UserChangedEvent.ChangeType.STATUS_CHANGED));
+            assertNotNull(tokenAuthenticationCache.get("raw-1"));
+        });
+        assertNull(tokenAuthenticationCache.get("raw-1"));
+    }
+
+    private static VerifiedToken token(String tokenId, String username, Instant expiration) {
+        return VerifiedToken.builder()
+            .tokenId(tokenId)
+            .subject(username)
+            .issuedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS))
+            .expiration(expiration)
+            .build();
+    }
+
+    private static AuthenticatedUser user(String username) {
+        return new AuthenticatedUser(1L, username, "", UserStatus.ACTIVE, AuthenticatedUser.DEFAULT_AUTHORITIES);
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.util.VerifiedToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cutoff checks, and status changes applied through real (H2) transactions
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "jwt.expiration=3600"
+})
+@Import({TokenCutoffRegistry.class, TimeOrderedUserIdGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenCutoffRegistryTest {
+
+    @Autowired
+    private TokenCutoffRegistry tokenCutoffRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Cutoff - tokens issued up to its second rejected, later ones and other users' accepted")
+    void testCutoff() {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusMillis(700);
+
+        tokenCutoffRegistry.revokeIssuedBefore("alice", cutoff);
+
+        assertTrue(tokenCutoffRegistry.isRevoked(token("alice", cutoff.minusSeconds(1))));
+        // Same second - a login right after re-enabling is rejected until the next second
+        assertTrue(tokenCutoffRegistry.isRevoked(token("alice", cutoff.truncatedTo(ChronoUnit.SECONDS))));
+        assertFalse(tokenCutoffRegistry.isRevoked(token("alice", cutoff.plusSeconds(1))));
+        assertFalse(tokenCutoffRegistry.isRevoked(token("bob", cutoff.minusSeconds(1))));
+    }
+
+    @Test
+    @DisplayName("Status change - tokens revoked once the change commits, not before")
+    void testStatusChangeAfterCommit() {
+        VerifiedToken issuedBefore = token("carol", Instant.now().minusSeconds(1));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(
+                new UserChangedEvent(3L, "carol", UserChangedEvent.ChangeType.STATUS_CHANGED));
+            assertFalse(tokenCutoffRegistry.isRevoked(issuedBefore));
+        });
+
+        assertTrue(tokenCutoffRegistry.isRevoked(issuedBefore));
+    }
+
+    @Test
+    @DisplayName("Rolled-back status change and other changes - nothing revoked")
+    void testNotRevoked() {
+        VerifiedToken issuedBefore = token("dave", Instant.now().minusSeconds(1));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(
+                new UserChangedEvent(4L, "dave", UserChangedEvent.ChangeType.STATUS_CHANGED));
+            status.setRollbackOnly();
+        });
+        eventPublisher.publishEvent(new UserChangedEvent(4L, "dave", UserChangedEvent.ChangeType.UPDATED));
+
+        assertFalse(tokenCutoffRegistry.isRevoked(issuedBefore));
+    }
+
+    private static VerifiedToken token(String username, Instant issuedAt) {
+        return VerifiedToken.builder()
+            .subject(username)
+            .issuedAt(issuedAt.truncatedTo(ChronoUnit.SECONDS))
+            .expiration(issuedAt.plusSeconds(3600))
+            .build();
+    }
+}
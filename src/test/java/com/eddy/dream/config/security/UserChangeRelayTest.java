@@ -0,0 +1,87 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserCacheStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two relays sharing one in-memory store, standing in for two application instances sharing Redis
+ */
+@ExtendWith(MockitoExtension.class)
+class UserChangeRelayTest {
+
+    @Mock
+    private TokenAuthenticationCache tokenAuthenticationCacheA;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsServiceA;
+
+    @Mock
+    private TokenCutoffRegistry tokenCutoffRegistryA;
+
+    @Mock
+    private TokenAuthenticationCache tokenAuthenticationCacheB;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsServiceB;
+
+    @Mock
+    private TokenCutoffRegistry tokenCutoffRegistryB;
+
+    private UserChangeRelay nodeA;
+
+    @BeforeEach
+    void setUp() {
+        UserCacheStore store = new InMemoryUserCacheStore(1000, 300);
+        nodeA = node(store, tokenAuthenticationCacheA, userDetailsServiceA, tokenCutoffRegistryA);
+        node(store, tokenAuthenticationCacheB, userDetailsServiceB, tokenCutoffRegistryB);
+    }
+
+    @Test
+    @DisplayName("Status change - other node evicts the user and revokes its tokens, own node left to its listeners")
+    void testStatusChange() {
+        Instant before = Instant.now();
+
+        nodeA.onUserChanged(new UserChangedEvent(1L, "alice", UserChangedEvent.ChangeType.STATUS_CHANGED));
+
+        verify(tokenAuthenticationCacheB).evictUser("alice");
+        verify(userDetailsServiceB).evictUser("alice");
+        verify(tokenCutoffRegistryB).revokeIssuedBefore(eq("alice"), argThat(cutoff -> !cutoff.isBefore(before)));
+        verifyNoInteractions(tokenAuthenticationCacheA, userDetailsServiceA, tokenCutoffRegistryA);
+    }
+
+    @Test
+    @DisplayName("Profile and password changes - other node evicts the user, tokens kept")
+    void testOtherChanges() {
+        nodeA.onUserChanged(new UserChangedEvent(1L, "alice", UserChangedEvent.ChangeType.UPDATED));
+        nodeA.onUserChanged(new UserChangedEvent(1L, "alice", UserChangedEvent.ChangeType.CREDENTIALS_CHANGED));
+
+        verify(tokenAuthenticationCacheB, times(2)).evictUser("alice");
+        verify(userDetailsServiceB, times(2)).evictUser("alice");
+        verify(tokenCutoffRegistryB, never()).revokeIssuedBefore(anyString(), any());
+    }
+
+    private static UserChangeRelay node(
+        UserCacheStore store,
+        TokenAuthenticationCache tokenAuthenticationCache,
+        UserDetailsServiceImpl userDetailsService,
+        TokenCutoffRegistry tokenCutoffRegistry
+    ) {
+        UserChangeRelay node = new UserChangeRelay(
+            store, tokenAuthenticationCache, userDetailsService, tokenCutoffRegistry);
+        node.init();
+        return node;
+    }
+}
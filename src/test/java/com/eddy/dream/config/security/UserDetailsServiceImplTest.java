@@ -0,0 +1,178 @@
+package com.eddy.dream.config.security;
+
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.UserMissCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMissCache userMissCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new UserDetailsServiceImpl(
+            userRepository, new UserAuthorities(List.of("admin")), userMissCache, eventPublisher, meterRegistry, true, 100, 300);
+
+        testUser = user(1L, "testuser", UserStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Load user - repeated loads served from cache")
+    void testLoadUserByUsername_Cached() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername("testuser");
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+
+        // Assert
+        assertEquals("testuser", second.getUsername());
+        assertEquals("encodedPassword", second.getPassword());
+        assertEquals(1L, ((AuthenticatedUser) second).getId());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "security.user.details")
+            .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Load user - erased credentials do not leak into the cache")
+    void testLoadUserByUsername_CredentialsErased() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        ((AuthenticatedUser) userDetailsService.loadUserByUsername("testuser")).eraseCredentials();
+        UserDetails result = userDetailsService.loadUserByUsername("testuser");
+
+        // Assert
+        assertEquals("encodedPassword", result.getPassword());
+    }
+
+    @Test
+    @DisplayName("Load user - configured admin gets ROLE_ADMIN")
+    void testLoadUserByUsername_Admin() {
+        // Arrange
+        when(userRepository.findByUsername("admin"))
+            .thenReturn(Optional.of(user(2L, "admin", UserStatus.ACTIVE)));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        UserDetails admin = userDetailsService.loadUserByUsername("admin");
+        UserDetails user = userDetailsService.loadUserByUsername("testuser");
+
+        // Assert
+        assertTrue(admin.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        assertFalse(user.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+    }
+
+    @Test
+    @DisplayName("Load user - unknown username not cached, recorded as a miss")
+    void testLoadUserByUsername_NotFound() {
+        // Arrange
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        verify(userRepository, times(2)).findByUsername("ghost");
+        verify(userMissCache, times(2)).recordMissingUsername("ghost");
+    }
+
+    @Test
+    @DisplayName("Load user - known miss answered without a query")
+    void testLoadUserByUsername_KnownMiss() {
+        // Arrange
+        when(userMissCache.isMissingUsername("ghost")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Update password - stores the rehash, evicts the cached user and publishes the change")
+    void testUpdatePassword() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        UserDetails loaded = userDetailsService.loadUserByUsername("testuser");
+
+        // Act
+        UserDetails result = userDetailsService.updatePassword(loaded, "rehashedPassword");
+        userDetailsService.loadUserByUsername("testuser");
+
+        // Assert
+        assertEquals("rehashedPassword", result.getPassword());
+        assertEquals(1L, ((AuthenticatedUser) result).getId());
+        verify(userRepository).updatePassword("testuser", "rehashedPassword");
+        verify(userRepository, times(2)).findByUsername("testuser");
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserChangedEvent changed
+            && changed.getUserId().equals(1L)
+            && changed.getChangeType() == UserChangedEvent.ChangeType.CREDENTIALS_CHANGED));
+    }
+
+    @Test
+    @DisplayName("User changed - cached user evicted")
+    void testOnUserChanged_Evicts() {
+        // Arrange
+        when(userRepository.findByUsername("testuser"))
+            .thenReturn(Optional.of(testUser))
+            .thenReturn(Optional.of(user(1L, "testuser", UserStatus.LOCKED)));
+        userDetailsService.loadUserByUsername("testuser");
+
+        // Act
+        userDetailsService.onUserChanged(
+            new UserChangedEvent(1L, "testuser", UserChangedEvent.ChangeType.STATUS_CHANGED));
+        UserDetails result = userDetailsService.loadUserByUsername("testuser");
+
+        // Assert
+        assertFalse(result.isAccountNonLocked());
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    private static UserEntity user(Long id, String username, UserStatus status) {
+        return UserEntity.builder()
+            .id(id)
+            .username(username)
+            .email(username + "@example.com")
+            .password("encodedPassword")
+            .status(status)
+            .build();
+    }
+}
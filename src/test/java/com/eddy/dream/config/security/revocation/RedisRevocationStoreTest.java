@@ -0,0 +1,103 @@
+package com.eddy.dream.config.security.revocation;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis revocation store against an in-process Redis server (jedis-mock); two stores on one server stand in
+ * for two nodes
+ */
+class RedisRevocationStoreTest {
+
+    private static RedisServer server;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    private RedisRevocationStore nodeA;
+
+    private RedisRevocationStore nodeB;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = RedisServer.newRedisServer().start();
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        server.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        nodeA = new RedisRevocationStore(redisTemplate, listenerContainer);
+        nodeB = new RedisRevocationStore(redisTemplate, listenerContainer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerContainer.stop();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("Revoke - visible on every node until the token expires, broadcast, listed as live")
+    void testRevoke() throws InterruptedException {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        nodeB.subscribe(received::add);
+        // Listeners added to a running container subscribe asynchronously
+        Thread.sleep(200);
+
+        nodeA.revoke("t1", Instant.now().plusSeconds(60));
+
+        assertTrue(nodeB.isRevoked("t1"));
+        assertFalse(nodeB.isRevoked("t2"));
+        assertEquals(Set.of("t1"), nodeB.liveTokenIds());
+        Long ttl = redisTemplate.getExpire(RedisRevocationStore.KEY_PREFIX + "t1", TimeUnit.SECONDS);
+        assertTrue(ttl != null && ttl > 0 && ttl <= 60);
+        assertEquals("t1", received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Already expired token - nothing stored")
+    void testExpired() {
+        nodeA.revoke("t1", Instant.now().minusSeconds(1));
+
+        assertFalse(nodeA.isRevoked("t1"));
+        assertTrue(nodeA.liveTokenIds().isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package com.eddy.dream.config.security.revocation;
+
+import com.eddy.dream.util.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two services sharing one in-memory store, standing in for two application instances sharing Redis
+ */
+class TokenRevocationServiceTest {
+
+    private InMemoryRevocationStore store;
+
+    private SimpleMeterRegistry meterRegistryA;
+
+    private TokenRevocationService nodeA;
+
+    private TokenRevocationService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        store = spy(new InMemoryRevocationStore());
+        meterRegistryA = new SimpleMeterRegistry();
+        nodeA = node(store, meterRegistryA);
+        nodeB = node(store, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Revoke - revoked on this node and on every other node")
+    void testRevokeOnEveryNode() {
+        VerifiedToken token = token("t1", Instant.now().plusSeconds(3600));
+
+        nodeA.revoke(token);
+
+        assertTrue(nodeA.isRevoked(token));
+        assertTrue(nodeB.isRevoked(token));
+        assertFalse(nodeB.isRevoked(token("t2", Instant.now().plusSeconds(3600))));
+    }
+
+    @Test
+    @DisplayName("Bloom filter miss - answered without a store lookup")
+    void testFilterMissSkipsStore() {
+        nodeA.revoke(token("t1", Instant.now().plusSeconds(3600)));
+
+        assertFalse(nodeA.isRevoked(token("t2", Instant.now().plusSeconds(3600))));
+        assertFalse(nodeA.isRevoked(VerifiedToken.builder().subject("alice").build()));
+
+        verify(store, never()).isRevoked(anyString());
+        assertEquals(0.0, meterRegistryA.get("jwt.revocation.store.lookups").counter().count());
+    }
+
+    @Test
+    @DisplayName("Rebuild - a token revoked while the store is read stays revoked")
+    void testRevokeDuringRebuild() {
+        VerifiedToken revokedDuringRebuild = token("t1", Instant.now().plusSeconds(3600));
+        doAnswer(invocation -> {
+            Set<String> live = Set.copyOf(store.liveTokenIds());
+            // Revoked on another node after the rebuild's read
+            nodeB.revoke(revokedDuringRebuild);
+            return live;
+        }).doCallRealMethod().when(store).liveTokenIds();
+
+        nodeA.rebuild();
+
+        assertTrue(nodeA.isRevoked(revokedDuringRebuild));
+    }
+
+    @Test
+    @DisplayName("Expired entry - no longer revoked, dropped from the filter by the next rebuild")
+    void testExpiredEntry() {
+        VerifiedToken expired = token("t1", Instant.now().minusSeconds(1));
+
+        nodeA.revoke(expired);
+        assertFalse(nodeA.isRevoked(expired));
+        assertTrue(meterRegistryA.get("jwt.revocation.bloom.entries").gauge().value() > 0);
+
+        nodeA.rebuild();
+
+        assertEquals(0.0, meterRegistryA.get("jwt.revocation.bloom.entries").gauge().value());
+        assertTrue(store.liveTokenIds().isEmpty());
+    }
+
+    private static TokenRevocationService node(RevocationStore store, SimpleMeterRegistry meterRegistry) {
+        TokenRevocationService node = new TokenRevocationService(store, meterRegistry, 1000, 0.01);
+        node.init();
+        return node;
+    }
+
+    private static VerifiedToken token(String tokenId, Instant expiration) {
+        return VerifiedToken.builder()
+            .tokenId(tokenId)
+            .subject("alice")
+            .issuedAt(expiration.minusSeconds(3600))
+            .expiration(expiration)
+            .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.eddy.dream.controller;
+
+import com.eddy.dream.config.security.JwtAuthenticationResolver;
+import com.eddy.dream.dto.response.UserImportResult;
+import com.eddy.dream.dto.response.UserImportSummary;
+import com.eddy.dream.exception.GlobalExceptionHandler;
+import com.eddy.dream.service.UserExportService;
+import com.eddy.dream.service.UserImportService;
+import com.eddy.dream.util.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * AdminUserController Integration Tests
+ * Tests the bulk import and export endpoints (format selection, streamed responses, gzip)
+ */
+@WebMvcTest(controllers = AdminUserController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(GlobalExceptionHandler.class)
+class AdminUserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserImportService userImportService;
+
+    @MockitoBean
+    private UserExportService userExportService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private JwtAuthenticationResolver jwtAuthenticationResolver;
+
+    @Test
+    @DisplayName("POST /api/admin/users/import - NDJSON results then summary")
+    void testImportNdjson() throws Exception {
+        when(userImportService.importUsers(any(InputStream.class), eq(UserImportService.Format.NDJSON), any()))
+            .thenAnswer(invocation -> {
+                Consumer<UserImportResult> results = invocation.getArgument(2);
+                results.accept(new UserImportResult(1, "alice", UserImportResult.Status.CREATED, null));
+                results.accept(new UserImportResult(2, "x", UserImportResult.Status.INVALID, List.of("Invalid email format")));
+                return UserImportSummary.builder().total(2).created(1).invalid(1).build();
+            });
+
+        String body = mockMvc.perform(post("/api/admin/users/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"username\":\"alice\"}\n{\"username\":\"x\"}\n"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"status\":\"CREATED\""), lines[0]);
+        assertTrue(lines[1].contains("Invalid email format"), lines[1]);
+        assertTrue(lines[2].contains("\"total\":2"), lines[2]);
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/users/import - text/csv selects the CSV reader")
+    void testImportCsv() throws Exception {
+        when(userImportService.importUsers(any(InputStream.class), eq(UserImportService.Format.CSV), any()))
+            .thenReturn(UserImportSummary.builder().build());
+
+        mockMvc.perform(post("/api/admin/users/import")
+                .contentType("text/csv;charset=UTF-8")
+                .content("username,email,password\n"))
+            .andExpect(status().isOk());
+
+        verify(userImportService, times(1))
+            .importUsers(any(InputStream.class), eq(UserImportService.Format.CSV), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/users/export - CSV streamed as an attachment")
+    void testExportCsv() throws Exception {
+        when(userExportService.exportUsers(any(OutputStream.class), eq(UserExportService.Format.CSV)))
+            .thenAnswer(invocation -> {
+                OutputStream output = invocation.getArgument(0);
+                output.write("id,username\n1,alice\n".getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+
+        MvcResult result = mockMvc.perform(get("/api/admin/users/export").param("format", "CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\""))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().string("id,username\n1,alice\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/users/export - gzip when accepted")
+    void testExportGzip() throws Exception {
+        when(userExportService.exportUsers(any(OutputStream.class), eq(UserExportService.Format.NDJSON)))
+            .thenAnswer(invocation -> {
+                OutputStream output = invocation.getArgument(0);
+                output.write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+
+        MvcResult result = mockMvc.perform(get("/api/admin/users/export")
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":1}", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Accept-Encoding parsing")
+    void testAcceptsGzip() {
+        assertTrue(AdminUserController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(AdminUserController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(AdminUserController.acceptsGzip("gzip;q=0"));
+        assertFalse(AdminUserController.acceptsGzip("identity"));
+        assertFalse(AdminUserController.acceptsGzip(null));
+    }
+}
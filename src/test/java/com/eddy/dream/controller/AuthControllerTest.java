@@ -1,5 +1,6 @@
 package com.eddy.dream.controller;
 
+import com.eddy.dream.config.security.JwtAuthenticationResolver;
 import com.eddy.dream.dto.request.LoginRequest;
 import com.eddy.dream.dto.request.RegisterRequest;
 import com.eddy.dream.dto.response.AuthResponse;
@@ -7,6 +8,7 @@ import com.eddy.dream.dto.response.UserResponse;
 import com.eddy.dream.exception.DuplicateResourceException;
 import com.eddy.dream.exception.GlobalExceptionHandler;
 import com.eddy.dream.exception.InvalidCredentialsException;
+import com.eddy.dream.exception.ServiceBusyException;
 import com.eddy.dream.service.AuthService;
 import com.eddy.dream.util.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,6 +27,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -51,6 +54,9 @@ class AuthControllerTest {
     @MockitoBean
     private JwtUtil jwtUtil;
 
+    @MockitoBean
+    private JwtAuthenticationResolver jwtAuthenticationResolver;
+
     @MockitoBean
     private UserDetailsService userDetailsService;
 
@@ -140,6 +146,20 @@ class AuthControllerTest {
         verify(authService, times(1)).register(any(RegisterRequest.class));
     }
 
+    @Test
+    @DisplayName("POST /api/auth/register - Password Hashing Saturated")
+    void testRegisterServiceBusy() throws Exception {
+        when(authService.register(any(RegisterRequest.class)))
+            .thenThrow(new ServiceBusyException("Too many login or registration requests, please retry later", 2));
+
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "2"))
+            .andExpect(jsonPath("$.code").value("SERVICE_BUSY"));
+    }
+
     @Test
     @DisplayName("POST /api/auth/register - Invalid Input (Missing Username)")
     void testRegisterInvalidInput() throws Exception {
@@ -235,5 +255,26 @@ class AuthControllerTest {
             .andExpect(status().isOk())
             .andExpect(content().string("Auth service is running"));
     }
-}
 
+    @Test
+    @DisplayName("POST /api/auth/logout - Success")
+    void testLogoutSuccess() throws Exception {
+        doNothing().when(authService).logout("jwt.token.here");
+
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer jwt.token.here"))
+            .andExpect(status().isNoContent());
+
+        verify(authService, times(1)).logout("jwt.token.here");
+    }
+
+    @Test
+    @DisplayName("POST /api/auth/logout - Missing Token")
+    void testLogoutMissingToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.code", is("AUTHENTICATION_ERROR")));
+
+        verify(authService, never()).logout(anyString());
+    }
+}
@@ -0,0 +1,173 @@
+package com.eddy.dream.controller;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.config.security.JwtAuthenticationResolver;
+import com.eddy.dream.config.security.TokenAuthenticationCache;
+import com.eddy.dream.config.security.TokenCutoffRegistry;
+import com.eddy.dream.config.security.UserAuthorities;
+import com.eddy.dream.config.security.UserDetailsServiceImpl;
+import com.eddy.dream.config.security.revocation.TokenRevocationService;
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.mapper.UserMapperImpl;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.cache.UserResponseCache;
+import com.eddy.dream.service.impl.LastLoginBuffer;
+import com.eddy.dream.service.impl.UserCounter;
+import com.eddy.dream.service.impl.UserServiceImpl;
+import com.eddy.dream.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GET /api/users/me against H2 - principal resolved as the JWT filter does, statements counted with Hibernate statistics
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({UserController.class, UserServiceImpl.class, UserMapperImpl.class, LastLoginBuffer.class,
+    UserResponseCache.class, UserMissCache.class, InMemoryUserCacheStore.class, UserCounter.class,
+    TimeOrderedUserIdGenerator.class, JwtUtil.class, JwtAuthenticationResolver.class, UserDetailsServiceImpl.class,
+    UserAuthorities.class, TokenCutoffRegistry.class, TokenAuthenticationCache.class,
+    CurrentUserStatementCountTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CurrentUserStatementCountTest {
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private JwtAuthenticationResolver jwtAuthenticationResolver;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    private Statistics statistics;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = userRepository.save(UserEntity.builder()
+            .username("testuser")
+            .email("test@example.com")
+            .password("hash")
+            .status(UserStatus.ACTIVE)
+            .build());
+        token = jwtUtil.generateToken(new AuthenticatedUser(
+            user.getId(), user.getUsername(), "", UserStatus.ACTIVE, AuthenticatedUser.DEFAULT_AUTHORITIES));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(jwtAuthenticationResolver, "statelessAuth", false);
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Lookup mode - /me adds one primary-key query, a repeated lookup in the request adds none")
+    void testLookupMode() {
+        inRequest(() -> {
+            authenticate();
+            assertEquals(1, statistics.getPrepareStatementCount());
+
+            statistics.clear();
+            assertEquals("test@example.com", userController.getCurrentUser().getBody().getEmail());
+            UserResponse again = userController.getCurrentUser().getBody();
+
+            assertEquals("testuser", again.getUsername());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(1, statistics.getEntityLoadCount());
+        });
+
+        // Next request: principal served from the token cache, the user from the user cache
+        statistics.clear();
+        inRequest(() -> {
+            authenticate();
+            userController.getCurrentUser();
+        });
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Stateless mode - principal from claims, /me is the only query of the request")
+    void testStatelessMode() {
+        ReflectionTestUtils.setField(jwtAuthenticationResolver, "statelessAuth", true);
+
+        inRequest(() -> {
+            authenticate();
+            userController.getCurrentUser();
+            userController.getCurrentUser();
+        });
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void authenticate() {
+        UserDetails principal = jwtAuthenticationResolver.resolve(token);
+        assertNotNull(principal);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static void inRequest(Runnable request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            request.run();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
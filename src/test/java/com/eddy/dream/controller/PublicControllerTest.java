@@ -0,0 +1,94 @@
+package com.eddy.dream.controller;
+
+import com.eddy.dream.config.security.JwtAuthenticationResolver;
+import com.eddy.dream.dto.response.UserAvailabilityResponse;
+import com.eddy.dream.exception.BusinessException;
+import com.eddy.dream.exception.GlobalExceptionHandler;
+import com.eddy.dream.service.UserAvailabilityService;
+import com.eddy.dream.util.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * PublicController Integration Tests
+ */
+@WebMvcTest(controllers = PublicController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(GlobalExceptionHandler.class)
+class PublicControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserAvailabilityService userAvailabilityService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private JwtAuthenticationResolver jwtAuthenticationResolver;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @Test
+    @DisplayName("GET /api/public/availability - Username and email")
+    void testCheckAvailability() throws Exception {
+        when(userAvailabilityService.checkAvailability("alice", "alice@example.com")).thenReturn(
+            UserAvailabilityResponse.builder()
+                .username("alice").usernameAvailable(false)
+                .email("alice@example.com").emailAvailable(true)
+                .build());
+
+        mockMvc.perform(get("/api/public/availability")
+                .param("username", "alice")
+                .param("email", "alice@example.com"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.usernameAvailable", is(false)))
+            .andExpect(jsonPath("$.emailAvailable", is(true)));
+    }
+
+    @Test
+    @DisplayName("GET /api/public/availability - Only the requested field is returned")
+    void testCheckAvailabilityUsernameOnly() throws Exception {
+        when(userAvailabilityService.checkAvailability("alice", null)).thenReturn(
+            UserAvailabilityResponse.builder().username("alice").usernameAvailable(true).build());
+
+        mockMvc.perform(get("/api/public/availability").param("username", "alice"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.usernameAvailable", is(true)))
+            .andExpect(jsonPath("$.emailAvailable").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/public/availability - Nothing to check")
+    void testCheckAvailabilityNoKeys() throws Exception {
+        when(userAvailabilityService.checkAvailability(null, null))
+            .thenThrow(new BusinessException("Username or email is required"));
+
+        mockMvc.perform(get("/api/public/availability"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message", is("Username or email is required")));
+    }
+}
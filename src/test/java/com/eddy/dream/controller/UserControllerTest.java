@@ -1,8 +1,15 @@
 package com.eddy.dream.controller;
 
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.config.security.JwtAuthenticationResolver;
 import com.eddy.dream.dto.request.UpdateUserRequest;
+import com.eddy.dream.dto.request.UserBatchRequest;
 import com.eddy.dream.dto.response.PageResponse;
+import com.eddy.dream.dto.response.UserBatchResponse;
 import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.enums.CountStrategy;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.exception.BusinessException;
 import com.eddy.dream.exception.DuplicateResourceException;
 import com.eddy.dream.exception.GlobalExceptionHandler;
 import com.eddy.dream.exception.ResourceNotFoundException;
@@ -19,6 +26,8 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -26,8 +35,10 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -55,6 +66,9 @@ class UserControllerTest {
     @MockitoBean
     private JwtUtil jwtUtil;
 
+    @MockitoBean
+    private JwtAuthenticationResolver jwtAuthenticationResolver;
+
     @MockitoBean
     private UserDetailsService userDetailsService;
 
@@ -117,6 +131,27 @@ class UserControllerTest {
         verify(userService, times(1)).getUserByUsername("testuser");
     }
 
+    @Test
+    @DisplayName("GET /api/users/me - JWT principal is looked up by its ID")
+    void testGetCurrentUserByPrincipalId() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(
+            1L, "testuser", "", UserStatus.ACTIVE, AuthenticatedUser.DEFAULT_AUTHORITIES);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(userService.getCurrentUser(1L)).thenReturn(userResponse);
+
+        try {
+            mockMvc.perform(get("/api/users/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is("testuser")));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(userService, times(1)).getCurrentUser(1L);
+        verify(userService, never()).getUserByUsername(any());
+    }
+
 
     @Test
     @DisplayName("GET /api/users/{id} - Success")
@@ -154,7 +189,7 @@ class UserControllerTest {
     @DisplayName("GET /api/users - Success with Pagination")
     @WithMockUser
     void testGetAllUsersSuccess() throws Exception {
-        when(userService.getAllUsers(0, 10)).thenReturn(pageResponse);
+        when(userService.getAllUsers(0, 10, null)).thenReturn(pageResponse);
 
         mockMvc.perform(get("/api/users")
                 .param("page", "0")
@@ -167,21 +202,129 @@ class UserControllerTest {
             .andExpect(jsonPath("$.totalElements", is(2)))
             .andExpect(jsonPath("$.totalPages", is(1)));
 
-        verify(userService, times(1)).getAllUsers(0, 10);
+        verify(userService, times(1)).getAllUsers(0, 10, null);
     }
 
     @Test
     @DisplayName("GET /api/users - Default Pagination")
     @WithMockUser
     void testGetAllUsersDefaultPagination() throws Exception {
-        when(userService.getAllUsers(0, 10)).thenReturn(pageResponse);
+        when(userService.getAllUsers(0, 10, null)).thenReturn(pageResponse);
 
         mockMvc.perform(get("/api/users"))
             .andExpect(status().isOk());
 
-        verify(userService, times(1)).getAllUsers(0, 10);
+        verify(userService, times(1)).getAllUsers(0, 10, null);
+    }
+
+
+    @Test
+    @DisplayName("GET /api/users?count=NONE - Count strategy passed through, totals omitted")
+    @WithMockUser
+    void testGetAllUsersWithoutCount() throws Exception {
+        PageResponse<UserResponse> slicePage = PageResponse.<UserResponse>builder()
+            .content(List.of(userResponse))
+            .pageNumber(0)
+            .pageSize(10)
+            .countStrategy(CountStrategy.NONE)
+            .first(true)
+            .last(true)
+            .build();
+        when(userService.getAllUsers(0, 10, CountStrategy.NONE)).thenReturn(slicePage);
+
+        mockMvc.perform(get("/api/users").param("count", "NONE"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.countStrategy", is("NONE")))
+            .andExpect(jsonPath("$.totalElements").doesNotExist())
+            .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+        verify(userService, times(1)).getAllUsers(0, 10, CountStrategy.NONE);
+    }
+
+    @Test
+    @DisplayName("GET /api/users?after= - Cursor mode, no totals")
+    @WithMockUser
+    void testGetUsersAfterCursor() throws Exception {
+        PageResponse<UserResponse> cursorPage = PageResponse.<UserResponse>builder()
+            .content(List.of(userResponse))
+            .pageSize(1)
+            .first(false)
+            .last(false)
+            .hasNext(true)
+            .hasPrevious(true)
+            .nextCursor("next")
+            .build();
+        when(userService.getUsersAfter("abc", 1)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/users")
+                .param("after", "abc")
+                .param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.nextCursor", is("next")))
+            .andExpect(jsonPath("$.totalElements").doesNotExist())
+            .andExpect(jsonPath("$.pageNumber").doesNotExist());
+
+        verify(userService, times(1)).getUsersAfter("abc", 1);
+        verify(userService, never()).getAllUsers(anyInt(), anyInt(), any());
     }
 
+    @Test
+    @DisplayName("GET /api/users?after=invalid - Bad Request")
+    @WithMockUser
+    void testGetUsersAfterInvalidCursor() throws Exception {
+        when(userService.getUsersAfter("bad", 10)).thenThrow(new BusinessException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/users").param("after", "bad"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message", is("Invalid cursor")));
+    }
+
+    // ==================== Batch Lookup Tests ====================
+
+    @Test
+    @DisplayName("POST /api/users/batch - Found and missing entries")
+    @WithMockUser
+    void testGetUsersBatchSuccess() throws Exception {
+        UserBatchResponse batchResponse = UserBatchResponse.builder()
+            .users(List.of(userResponse))
+            .missingIds(List.of(999L))
+            .missingUsernames(List.of("ghost"))
+            .build();
+        when(userService.getUsers(List.of(1L, 999L), List.of("ghost"))).thenReturn(batchResponse);
+
+        UserBatchRequest request = UserBatchRequest.builder()
+            .ids(List.of(1L, 999L))
+            .usernames(List.of("ghost"))
+            .build();
+
+        mockMvc.perform(post("/api/users/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users", hasSize(1)))
+            .andExpect(jsonPath("$.users[0].username", is("testuser")))
+            .andExpect(jsonPath("$.missingIds[0]", is(999)))
+            .andExpect(jsonPath("$.missingUsernames[0]", is("ghost")));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch - Too many IDs")
+    @WithMockUser
+    void testGetUsersBatchTooMany() throws Exception {
+        UserBatchRequest request = UserBatchRequest.builder()
+            .ids(LongStream.rangeClosed(1, UserBatchRequest.MAX_SIZE + 1).boxed().toList())
+            .build();
+
+        mockMvc.perform(post("/api/users/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getUsers(any(), any());
+    }
 
     // ==================== Update User Tests ====================
 
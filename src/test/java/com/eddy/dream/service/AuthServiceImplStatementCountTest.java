@@ -0,0 +1,207 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.config.security.UserAuthorities;
+import com.eddy.dream.config.security.UserDetailsServiceImpl;
+import com.eddy.dream.config.security.revocation.TokenRevocationService;
+import com.eddy.dream.dto.request.LoginRequest;
+import com.eddy.dream.dto.request.RegisterRequest;
+import com.eddy.dream.dto.response.AuthResponse;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.exception.DuplicateResourceException;
+import com.eddy.dream.mapper.UserMapperImpl;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.cache.UserResponseCache;
+import com.eddy.dream.service.impl.AuthServiceImpl;
+import com.eddy.dream.service.impl.LastLoginBuffer;
+import com.eddy.dream.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Login round trips against H2, counted with Hibernate statistics
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AuthServiceImpl.class, LastLoginBuffer.class, UserResponseCache.class, UserMissCache.class,
+    InMemoryUserCacheStore.class, UserMapperImpl.class, JwtUtil.class, UserAuthorities.class,
+    UserDetailsServiceImpl.class, TimeOrderedUserIdGenerator.class, AuthServiceImplStatementCountTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthServiceImplStatementCountTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lastLoginBuffer.flush();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Login - one SELECT, last login written behind")
+    void testLoginStatementCount() {
+        saveUser(passwordEncoder.encode("Password123!"));
+        statistics.clear();
+
+        AuthResponse response = authService.login(new LoginRequest("testuser", "Password123!"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNotNull(response.getToken());
+        assertNotNull(response.getUser().getLastLoginAt());
+        assertNull(userRepository.findByUsername("testuser").orElseThrow().getLastLoginAt());
+
+        lastLoginBuffer.flush();
+
+        assertEquals(response.getUser().getLastLoginAt().withNano(0),
+            userRepository.findByUsername("testuser").orElseThrow().getLastLoginAt().withNano(0));
+    }
+
+    @Test
+    @DisplayName("Logins of many users - flushed as one batch")
+    void testLastLoginFlushedAsBatch() {
+        String hash = passwordEncoder.encode("Password123!");
+        for (int i = 0; i < 5; i++) {
+            saveUser("user" + i, hash);
+            authService.login(new LoginRequest("user" + i, "Password123!"));
+        }
+        long batches = meterRegistry.get("user.last-login.flush").timer().count();
+        double rows = meterRegistry.get("user.last-login.flushed").counter().count();
+
+        lastLoginBuffer.flush();
+
+        // One JDBC batch for all five rows (JdbcTemplate, so counted by the buffer's meters)
+        assertEquals(batches + 1, meterRegistry.get("user.last-login.flush").timer().count());
+        assertEquals(rows + 5, meterRegistry.get("user.last-login.flushed").counter().count());
+        userRepository.findAll().forEach(user -> assertNotNull(user.getLastLoginAt()));
+    }
+
+    @Test
+    @DisplayName("Login - wrong password issues only the SELECT")
+    void testFailedLoginStatementCount() {
+        saveUser(passwordEncoder.encode("Password123!"));
+        statistics.clear();
+
+        assertThrows(Exception.class, () -> authService.login(new LoginRequest("testuser", "wrong")));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Login - rehash adds a single UPDATE")
+    void testRehashStatementCount() {
+        saveUser(new BCryptPasswordEncoder(4).encode("Password123!"));
+        statistics.clear();
+
+        authService.login(new LoginRequest("testuser", "Password123!"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertFalse(passwordEncoder.upgradeEncoding(userRepository.findByUsername("testuser").orElseThrow().getPassword()));
+    }
+
+    @Test
+    @DisplayName("Register - a single INSERT")
+    void testRegisterStatementCount() {
+        statistics.clear();
+
+        AuthResponse response = authService.register(
+            RegisterRequest.builder().username("newuser").email("new@example.com").password("Password123!").build());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNotNull(response.getToken());
+        assertNotNull(response.getUser().getId());
+    }
+
+    @Test
+    @DisplayName("Register - duplicates translated from the unique indexes")
+    void testRegisterDuplicates() {
+        saveUser(passwordEncoder.encode("Password123!"));
+
+        DuplicateResourceException username = assertThrows(DuplicateResourceException.class, () -> authService.register(
+            RegisterRequest.builder().username("testuser").email("other@example.com").password("Password123!").build()));
+        DuplicateResourceException email = assertThrows(DuplicateResourceException.class, () -> authService.register(
+            RegisterRequest.builder().username("other").email("testuser@example.com").password("Password123!").build()));
+
+        assertTrue(username.getMessage().contains("username: testuser"));
+        assertTrue(email.getMessage().contains("email: testuser@example.com"));
+        assertEquals(1, userRepository.count());
+    }
+
+    private void saveUser(String passwordHash) {
+        saveUser("testuser", passwordHash);
+    }
+
+    private void saveUser(String username, String passwordHash) {
+        userRepository.save(UserEntity.builder()
+            .username(username)
+            .email(username + "@example.com")
+            .password(passwordHash)
+            .status(UserStatus.ACTIVE)
+            .build());
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(5);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
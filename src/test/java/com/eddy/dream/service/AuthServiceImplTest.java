@@ -1,39 +1,53 @@
 package com.eddy.dream.service;
 
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.config.security.UserAuthorities;
+import com.eddy.dream.config.security.revocation.TokenRevocationService;
 import com.eddy.dream.dto.request.LoginRequest;
 import com.eddy.dream.dto.request.RegisterRequest;
 import com.eddy.dream.dto.response.AuthResponse;
 import com.eddy.dream.dto.response.UserResponse;
 import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.event.UserKeysTakenEvent;
 import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.exception.AuthenticationException;
 import com.eddy.dream.exception.DuplicateResourceException;
 import com.eddy.dream.exception.InvalidCredentialsException;
+import com.eddy.dream.exception.ServiceBusyException;
 import com.eddy.dream.mapper.UserMapper;
 import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.UserMissCache;
 import com.eddy.dream.service.impl.AuthServiceImpl;
+import com.eddy.dream.service.impl.LastLoginBuffer;
 import com.eddy.dream.util.JwtUtil;
+import com.eddy.dream.util.VerifiedToken;
+import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Collections;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,14 +65,23 @@ class AuthServiceImplTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Spy
+    private UserAuthorities userAuthorities = new UserAuthorities(List.of());
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
-    private AuthenticationManager authenticationManager;
+    private LastLoginBuffer lastLoginBuffer;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private UserMissCache userMissCache;
 
     @Mock
-    private UserService userService;
+    private UserDetailsPasswordService userDetailsPasswordService;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -67,7 +90,6 @@ class AuthServiceImplTest {
     private LoginRequest loginRequest;
     private UserEntity userEntity;
     private UserResponse userResponse;
-    private UserDetails userDetails;
 
     @BeforeEach
     void setUp() {
@@ -96,12 +118,6 @@ class AuthServiceImplTest {
             .email("test@example.com")
             .status("ACTIVE")
             .build();
-
-        userDetails = new User(
-            "testuser",
-            "encodedPassword",
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-        );
     }
 
     // ==================== Register Tests ====================
@@ -109,12 +125,9 @@ class AuthServiceImplTest {
     @Test
     @DisplayName("Register - Success")
     void testRegisterSuccess() {
-        when(userRepository.existsByUsername("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
         when(passwordEncoder.encode("Password123!")).thenReturn("encodedPassword");
         when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
-        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
-        when(jwtUtil.generateToken(userDetails)).thenReturn("jwt.token.here");
+        when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn("jwt.token.here");
         when(jwtUtil.getExpiration()).thenReturn(86400L);
         when(userMapper.entityToResponse(userEntity)).thenReturn(userResponse);
 
@@ -126,17 +139,23 @@ class AuthServiceImplTest {
         assertEquals("testuser", response.getUser().getUsername());
         assertEquals("test@example.com", response.getUser().getEmail());
 
-        verify(userRepository, times(1)).existsByUsername("testuser");
-        verify(userRepository, times(1)).existsByEmail("test@example.com");
+        // Single write: no exists-checks, token built from the saved entity without a reload
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
         verify(passwordEncoder, times(1)).encode("Password123!");
         verify(userRepository, times(1)).save(any(UserEntity.class));
-        verify(jwtUtil, times(1)).generateToken(userDetails);
+        verify(jwtUtil, times(1)).generateToken(argThat(user ->
+            user instanceof AuthenticatedUser authenticated && authenticated.getId().equals(1L)));
+        verify(userMissCache, times(1)).created(1L, "testuser");
+        verify(eventPublisher, times(1)).publishEvent((Object) argThat(event -> event instanceof UserKeysTakenEvent taken
+            && taken.getKeys().equals(List.of("testuser", "test@example.com"))));
     }
 
     @Test
     @DisplayName("Register - Username Already Exists")
     void testRegisterUsernameExists() {
-        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        when(passwordEncoder.encode("Password123!")).thenReturn("encodedPassword");
+        when(userRepository.save(any(UserEntity.class))).thenThrow(duplicateKey("users.idx_username"));
 
         DuplicateResourceException exception = assertThrows(
             DuplicateResourceException.class,
@@ -144,16 +163,15 @@ class AuthServiceImplTest {
         );
 
         assertTrue(exception.getMessage().contains("username"));
-        verify(userRepository, times(1)).existsByUsername("testuser");
-        verify(userRepository, never()).existsByEmail(anyString());
-        verify(userRepository, never()).save(any(UserEntity.class));
+        assertTrue(exception.getMessage().contains("testuser"));
+        verify(jwtUtil, never()).generateToken(any(UserDetails.class));
     }
 
     @Test
     @DisplayName("Register - Email Already Exists")
     void testRegisterEmailExists() {
-        when(userRepository.existsByUsername("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+        when(passwordEncoder.encode("Password123!")).thenReturn("encodedPassword");
+        when(userRepository.save(any(UserEntity.class))).thenThrow(duplicateKey("users.idx_email"));
 
         DuplicateResourceException exception = assertThrows(
             DuplicateResourceException.class,
@@ -161,26 +179,39 @@ class AuthServiceImplTest {
         );
 
         assertTrue(exception.getMessage().contains("email"));
-        verify(userRepository, times(1)).existsByUsername("testuser");
-        verify(userRepository, times(1)).existsByEmail("test@example.com");
-        verify(userRepository, never()).save(any(UserEntity.class));
+        assertTrue(exception.getMessage().contains("test@example.com"));
+        verify(jwtUtil, never()).generateToken(any(UserDetails.class));
+    }
+
+    @Test
+    @DisplayName("Register - Other Integrity Violation Not Translated")
+    void testRegisterOtherViolation() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("Column 'email' cannot be null", null, null));
+        when(passwordEncoder.encode("Password123!")).thenReturn("encodedPassword");
+        when(userRepository.save(any(UserEntity.class))).thenThrow(notNull);
+
+        DataIntegrityViolationException exception = assertThrows(
+            DataIntegrityViolationException.class,
+            () -> authService.register(registerRequest)
+        );
+
+        assertSame(notNull, exception);
     }
 
     @Test
     @DisplayName("Register - Password Encoding")
     void testRegisterPasswordEncoding() {
-        when(userRepository.existsByUsername("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
         when(passwordEncoder.encode("Password123!")).thenReturn("super.encoded.password");
         when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
-        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
-        when(jwtUtil.generateToken(userDetails)).thenReturn("jwt.token");
+        when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn("jwt.token");
         when(jwtUtil.getExpiration()).thenReturn(86400L);
         when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
 
         authService.register(registerRequest);
 
         verify(passwordEncoder, times(1)).encode("Password123!");
+        verify(userRepository).save(argThat(entity -> "super.encoded.password".equals(entity.getPassword())));
     }
 
     // ==================== Login Tests ====================
@@ -188,13 +219,7 @@ class AuthServiceImplTest {
     @Test
     @DisplayName("Login - Success")
     void testLoginSuccess() {
-        Authentication authentication = mock(Authentication.class);
-        when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-            .thenReturn(authentication);
-        when(jwtUtil.generateToken(userDetails)).thenReturn("jwt.token.here");
-        when(jwtUtil.getExpiration()).thenReturn(86400L);
-        when(userService.getUserByUsername("testuser")).thenReturn(userResponse);
+        stubSuccessfulLogin("jwt.token.here");
 
         AuthResponse response = authService.login(loginRequest);
 
@@ -203,18 +228,17 @@ class AuthServiceImplTest {
         assertEquals(86400L, response.getExpiresIn());
         assertEquals("testuser", response.getUser().getUsername());
 
-        verify(authenticationManager, times(1))
-            .authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil, times(1)).generateToken(userDetails);
-        verify(userService, times(1)).updateLastLogin("testuser");
-        verify(userService, times(1)).getUserByUsername("testuser");
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(passwordEncoder, times(1)).matches("Password123!", "encodedPassword");
+        verify(jwtUtil, times(1)).generateToken(any(UserDetails.class));
+        verify(userMapper, times(1)).entityToResponse(userEntity);
     }
 
     @Test
     @DisplayName("Login - Invalid Credentials")
     void testLoginInvalidCredentials() {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-            .thenThrow(new BadCredentialsException("Invalid credentials"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
+        when(passwordEncoder.matches("Password123!", "encodedPassword")).thenReturn(false);
 
         InvalidCredentialsException exception = assertThrows(
             InvalidCredentialsException.class,
@@ -222,59 +246,152 @@ class AuthServiceImplTest {
         );
 
         assertNotNull(exception);
-        verify(authenticationManager, times(1))
-            .authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtUtil, never()).generateToken(any(UserDetails.class));
-        verify(userService, never()).updateLastLogin(anyString());
+        verify(lastLoginBuffer, never()).record(anyLong(), any(LocalDateTime.class));
     }
 
     @Test
-    @DisplayName("Login - Authentication Exception")
-    void testLoginAuthenticationException() {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-            .thenThrow(new RuntimeException("Authentication failed"));
+    @DisplayName("Login - Unknown User")
+    void testLoginUnknownUser() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode("userNotFoundPassword")).thenReturn("dummyHash");
 
-        InvalidCredentialsException exception = assertThrows(
-            InvalidCredentialsException.class,
-            () -> authService.login(loginRequest)
-        );
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(loginRequest));
 
-        assertNotNull(exception);
-        verify(authenticationManager, times(1))
-            .authenticate(any(UsernamePasswordAuthenticationToken.class));
+        // Password is still hashed so the response time does not reveal unknown usernames
+        verify(passwordEncoder, times(1)).matches("Password123!", "dummyHash");
+        verify(jwtUtil, never()).generateToken(any(UserDetails.class));
+        verify(userMissCache, times(1)).recordMissingUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Login - Known Unknown User Skips The Query, Not The Hash")
+    void testLoginKnownMiss() {
+        when(userMissCache.isMissingUsername("testuser")).thenReturn(true);
+        when(passwordEncoder.encode("userNotFoundPassword")).thenReturn("dummyHash");
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(loginRequest));
+
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(passwordEncoder, times(1)).matches("Password123!", "dummyHash");
+    }
+
+    @Test
+    @DisplayName("Login - Locked Account")
+    void testLoginLockedAccount() {
+        userEntity.setStatus(UserStatus.LOCKED);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
+        when(passwordEncoder.matches("Password123!", "encodedPassword")).thenReturn(true);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(loginRequest));
+
+        verify(jwtUtil, never()).generateToken(any(UserDetails.class));
+        verify(lastLoginBuffer, never()).record(anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Login - Password Hashing Saturated")
+    void testLoginServiceBusy() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
+        when(passwordEncoder.matches("Password123!", "encodedPassword"))
+            .thenThrow(new ServiceBusyException("busy", 1));
+
+        assertThrows(ServiceBusyException.class, () -> authService.login(loginRequest));
+
+        verify(jwtUtil, never()).generateToken(any(UserDetails.class));
+        verify(lastLoginBuffer, never()).record(anyLong(), any(LocalDateTime.class));
     }
 
     @Test
     @DisplayName("Login - Updates Last Login Time")
     void testLoginUpdatesLastLoginTime() {
-        Authentication authentication = mock(Authentication.class);
-        when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-            .thenReturn(authentication);
-        when(jwtUtil.generateToken(userDetails)).thenReturn("jwt.token");
-        when(jwtUtil.getExpiration()).thenReturn(86400L);
-        when(userService.getUserByUsername("testuser")).thenReturn(userResponse);
+        stubSuccessfulLogin("jwt.token");
 
         authService.login(loginRequest);
 
-        verify(userService, times(1)).updateLastLogin("testuser");
+        verify(lastLoginBuffer, times(1)).record(eq(1L), any(LocalDateTime.class));
+        assertNotNull(userEntity.getLastLoginAt());
     }
 
     @Test
     @DisplayName("Login - Generates JWT Token")
     void testLoginGeneratesJwtToken() {
-        Authentication authentication = mock(Authentication.class);
-        when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-            .thenReturn(authentication);
-        when(jwtUtil.generateToken(userDetails)).thenReturn("generated.jwt.token");
-        when(jwtUtil.getExpiration()).thenReturn(86400L);
-        when(userService.getUserByUsername("testuser")).thenReturn(userResponse);
+        stubSuccessfulLogin("generated.jwt.token");
 
         AuthResponse response = authService.login(loginRequest);
 
         assertEquals("generated.jwt.token", response.getToken());
-        verify(jwtUtil, times(1)).generateToken(userDetails);
+        verify(jwtUtil, times(1)).generateToken(argThat(user ->
+            user instanceof AuthenticatedUser authenticated
+                && authenticated.getId().equals(1L)
+                && authenticated.getUsername().equals("testuser")));
+    }
+
+    @Test
+    @DisplayName("Login - Rehashes Outdated Password Hash")
+    void testLoginRehashesPassword() {
+        stubSuccessfulLogin("jwt.token");
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("Password123!")).thenReturn("rehashedPassword");
+
+        authService.login(loginRequest);
+
+        verify(userDetailsPasswordService, times(1)).updatePassword(
+            argThat(user -> user instanceof AuthenticatedUser authenticated && authenticated.getId().equals(1L)),
+            eq("rehashedPassword"));
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+        assertEquals("rehashedPassword", userEntity.getPassword());
     }
-}
 
+    @Test
+    @DisplayName("Login - Current Password Hash Left Alone")
+    void testLoginKeepsCurrentHash() {
+        stubSuccessfulLogin("jwt.token");
+
+        authService.login(loginRequest);
+
+        verify(userDetailsPasswordService, never()).updatePassword(any(), anyString());
+    }
+
+    private static DataIntegrityViolationException duplicateKey(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("Duplicate entry", null,
+                ConstraintViolationException.ConstraintKind.UNIQUE, constraintName));
+    }
+
+    private void stubSuccessfulLogin(String token) {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
+        when(passwordEncoder.matches("Password123!", "encodedPassword")).thenReturn(true);
+        when(jwtUtil.generateToken(any(UserDetails.class))).thenReturn(token);
+        when(jwtUtil.getExpiration()).thenReturn(86400L);
+        when(userMapper.entityToResponse(userEntity)).thenReturn(userResponse);
+    }
+
+    // ==================== Logout Tests ====================
+
+    @Test
+    @DisplayName("Logout - Revokes Token")
+    void testLogoutRevokesToken() {
+        VerifiedToken verifiedToken = VerifiedToken.builder()
+            .tokenId("token-id")
+            .subject("testuser")
+            .issuedAt(Instant.now())
+            .expiration(Instant.now().plusSeconds(3600))
+            .build();
+        when(jwtUtil.verifyToken("jwt.token")).thenReturn(verifiedToken);
+
+        authService.logout("jwt.token");
+
+        verify(tokenRevocationService, times(1)).revoke(verifiedToken);
+    }
+
+    @Test
+    @DisplayName("Logout - Invalid Token")
+    void testLogoutInvalidToken() {
+        when(jwtUtil.verifyToken("bad.token")).thenThrow(new MalformedJwtException("Malformed"));
+
+        assertThrows(AuthenticationException.class, () -> authService.logout("bad.token"));
+
+        verify(tokenRevocationService, never()).revoke(any(VerifiedToken.class));
+    }
+}
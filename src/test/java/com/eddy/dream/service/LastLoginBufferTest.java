@@ -0,0 +1,116 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.UserResponseCache;
+import com.eddy.dream.service.impl.LastLoginBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginBufferTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserResponseCache userResponseCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LastLoginBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new LastLoginBuffer(jdbcTemplate, userRepository, userResponseCache, meterRegistry, true, 2, 500);
+    }
+
+    @Test
+    @DisplayName("Record - repeated logins coalesce to the latest time, one batch row per user")
+    @SuppressWarnings("unchecked")
+    void testRecordCoalesces() {
+        buffer.record(1L, T0.plusSeconds(5));
+        buffer.record(1L, T0);
+        buffer.record(2L, T0);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        Object[] first = batch.getValue().stream().filter(row -> row[2].equals(1L)).findFirst().orElseThrow();
+        assertEquals(Timestamp.valueOf(T0.plusSeconds(5)), first[0]);
+        assertEquals(0.0, meterRegistry.get("user.last-login.pending").gauge().value());
+        verify(userRepository, never()).recordLogin(any(), any());
+        verify(userResponseCache, times(1)).invalidate(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))));
+    }
+
+    @Test
+    @DisplayName("Record - full buffer writes new users directly")
+    void testRecordOverflow() {
+        buffer.record(1L, T0);
+        buffer.record(2L, T0);
+
+        buffer.record(3L, T0);
+        buffer.record(1L, T0.plusSeconds(1));
+
+        verify(userRepository, times(1)).recordLogin(3L, T0);
+        verify(userResponseCache, times(1)).invalidate(List.of(3L));
+        assertEquals(2.0, meterRegistry.get("user.last-login.pending").gauge().value());
+        assertEquals(1.0, meterRegistry.get("user.last-login.overflow").counter().count());
+    }
+
+    @Test
+    @DisplayName("Flush - failed batch is kept for the next flush")
+    void testFlushFailureRequeues() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenReturn(new int[]{1});
+        buffer.record(1L, T0);
+
+        buffer.flush();
+        assertEquals(1.0, meterRegistry.get("user.last-login.pending").gauge().value());
+        verifyNoInteractions(userResponseCache);
+
+        buffer.flush();
+        assertEquals(0.0, meterRegistry.get("user.last-login.pending").gauge().value());
+        assertEquals(1.0, meterRegistry.get("user.last-login.flushed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Disabled - every login written directly")
+    void testDisabled() {
+        buffer = new LastLoginBuffer(jdbcTemplate, userRepository, userResponseCache, new SimpleMeterRegistry(), false, 2, 500);
+
+        buffer.record(1L, T0);
+        buffer.flush();
+
+        verify(userRepository, times(1)).recordLogin(1L, T0);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,176 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.service.cache.RedisUserCacheStore;
+import com.eddy.dream.service.cache.UserChange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis store against an in-process Redis server (jedis-mock), so the Lua script and pub/sub run for real;
+ * two stores on one server stand in for two nodes
+ */
+class RedisUserCacheStoreTest {
+
+    private static RedisServer server;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+
+    private RedisMessageListenerContainer listenerContainerA;
+
+    private RedisMessageListenerContainer listenerContainerB;
+
+    private RedisUserCacheStore nodeA;
+
+    private RedisUserCacheStore nodeB;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = RedisServer.newRedisServer().start();
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        server.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        listenerContainerA = listenerContainer();
+        listenerContainerB = listenerContainer();
+        nodeA = new RedisUserCacheStore(redisTemplate, listenerContainerA, objectMapper, 300);
+        nodeB = new RedisUserCacheStore(redisTemplate, listenerContainerB, objectMapper, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerContainerA.stop();
+        listenerContainerB.stop();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("Put - readable by ID and lower-cased username on every node, one by one and in batches, with the TTL")
+    void testPutAndGet() {
+        UserResponse alice = user(1L, "Alice");
+
+        nodeA.put(alice, nodeA.generation());
+
+        assertEquals(alice, nodeB.get(1L));
+        assertEquals(1L, nodeB.getId("alice"));
+        assertEquals(Map.of(1L, alice), nodeB.getAll(List.of(1L, 2L)));
+        assertEquals(Map.of("alice", 1L), nodeB.getIds(List.of("alice", "bob")));
+        assertNull(nodeB.get(2L));
+        Long ttl = redisTemplate.getExpire("dream:user:id:1", TimeUnit.SECONDS);
+        assertTrue(ttl != null && ttl > 0 && ttl <= 300);
+    }
+
+    @Test
+    @DisplayName("Invalidate - deletes the user, advances the generation, broadcasts the IDs to every node")
+    void testInvalidate() throws InterruptedException {
+        BlockingQueue<Collection<Long>> received = new LinkedBlockingQueue<>();
+        nodeB.subscribe(received::add);
+        awaitSubscriptions();
+        long generation = nodeA.generation();
+        nodeA.put(user(1L, "alice"), generation);
+
+        nodeA.invalidate(List.of(1L, 2L));
+
+        assertNull(nodeB.get(1L));
+        assertEquals(generation + 1, nodeB.generation());
+        assertEquals(List.of(1L, 2L), received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Put with a generation read before an invalidation - skipped by the script")
+    void testStalePutSkipped() {
+        long generation = nodeA.generation();
+        nodeB.invalidate(List.of(1L));
+
+        nodeA.put(user(1L, "alice"), generation);
+
+        assertNull(nodeA.get(1L));
+        assertNull(nodeA.getId("alice"));
+        nodeA.put(user(1L, "alice"), nodeA.generation());
+        assertNotNull(nodeA.get(1L));
+    }
+
+    @Test
+    @DisplayName("Created, taken and changed channels - messages parsed back on every node")
+    void testChannels() throws InterruptedException {
+        BlockingQueue<String> created = new LinkedBlockingQueue<>();
+        BlockingQueue<Collection<String>> taken = new LinkedBlockingQueue<>();
+        BlockingQueue<UserChange> changed = new LinkedBlockingQueue<>();
+        nodeB.subscribeCreated((id, username) -> created.add(id + "=" + username));
+        nodeB.subscribeTaken(taken::add);
+        nodeB.subscribeChanged(changed::add);
+        awaitSubscriptions();
+        UserChange change = new UserChange(
+            "node-a", 1L, "odd:name", UserChangedEvent.ChangeType.STATUS_CHANGED, Instant.ofEpochMilli(1_700_000_000_123L));
+
+        nodeA.publishCreated(1L, "alice");
+        nodeA.publishTaken(List.of("alice", "alice@example.com"));
+        nodeA.publishChanged(change);
+
+        assertEquals("1=alice", created.poll(5, TimeUnit.SECONDS));
+        assertEquals(List.of("alice", "alice@example.com"), taken.poll(5, TimeUnit.SECONDS));
+        assertEquals(change, changed.poll(5, TimeUnit.SECONDS));
+    }
+
+    private RedisMessageListenerContainer listenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+        return container;
+    }
+
+    /**
+     * Listeners added to a running container subscribe asynchronously
+     */
+    private static void awaitSubscriptions() throws InterruptedException {
+        Thread.sleep(200);
+    }
+
+    private static UserResponse user(Long id, String username) {
+        return UserResponse.builder()
+            .id(id).username(username).email(username.toLowerCase() + "@example.com").status("ACTIVE")
+            .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+            .build();
+    }
+}
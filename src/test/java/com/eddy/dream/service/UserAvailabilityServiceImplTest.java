@@ -0,0 +1,104 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.dto.response.UserAvailabilityResponse;
+import com.eddy.dream.exception.BusinessException;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.UserKeyFilter;
+import com.eddy.dream.service.impl.UserAvailabilityServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAvailabilityServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserKeyFilter userKeyFilter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserAvailabilityService userAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userAvailabilityService = new UserAvailabilityServiceImpl(userRepository, userKeyFilter, meterRegistry);
+        lenient().when(userKeyFilter.covers(anyString())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Definitely free - answered by the filter, no query")
+    void testFilteredOut() {
+        UserAvailabilityResponse response = userAvailabilityService.checkAvailability("carol", "carol@example.com");
+
+        assertTrue(response.getUsernameAvailable());
+        assertTrue(response.getEmailAvailable());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        assertEquals(2.0, meterRegistry.get("user.availability.checks").tag("result", "filtered").counter().count());
+    }
+
+    @Test
+    @DisplayName("Maybe taken - the unique index decides; free ones count as false positives")
+    void testMaybeTaken() {
+        when(userKeyFilter.mightBeTaken(anyString())).thenReturn(true);
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+        when(userRepository.existsByEmail("carol@example.com")).thenReturn(false);
+
+        UserAvailabilityResponse response = userAvailabilityService.checkAvailability("alice", "carol@example.com");
+
+        assertFalse(response.getUsernameAvailable());
+        assertTrue(response.getEmailAvailable());
+        assertEquals(1.0, meterRegistry.get("user.availability.checks").tag("result", "taken").counter().count());
+        assertEquals(1.0, meterRegistry.get("user.availability.false.positive.rate").gauge().value());
+    }
+
+    @Test
+    @DisplayName("False-positive rate - share of free keys the filter could not rule out")
+    void testFalsePositiveRate() {
+        assertEquals(0.0, meterRegistry.get("user.availability.false.positive.rate").gauge().value());
+        when(userKeyFilter.mightBeTaken(anyString())).thenAnswer(invocation -> invocation.getArgument(0).equals("dave"));
+
+        userAvailabilityService.checkAvailability("carol", null);
+        userAvailabilityService.checkAvailability("erin", null);
+        userAvailabilityService.checkAvailability("frank", null);
+        userAvailabilityService.checkAvailability("dave", null);
+
+        assertEquals(0.25, meterRegistry.get("user.availability.false.positive.rate").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Key the filter does not cover - the unique index decides, false-positive rate untouched")
+    void testUnfiltered() {
+        when(userKeyFilter.covers("stra\u00dfe@example.com")).thenReturn(false);
+        when(userRepository.existsByEmail("stra\u00dfe@example.com")).thenReturn(false);
+
+        UserAvailabilityResponse response = userAvailabilityService.checkAvailability(null, "stra\u00dfe@example.com");
+
+        assertTrue(response.getEmailAvailable());
+        verify(userKeyFilter, never()).mightBeTaken(anyString());
+        assertEquals(1.0, meterRegistry.get("user.availability.checks").tag("result", "unfiltered").counter().count());
+        assertEquals(0.0, meterRegistry.get("user.availability.false.positive.rate").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Only the requested key is checked; none is rejected")
+    void testKeys() {
+        UserAvailabilityResponse response = userAvailabilityService.checkAvailability(null, "carol@example.com");
+
+        assertNull(response.getUsernameAvailable());
+        assertTrue(response.getEmailAvailable());
+        assertThrows(BusinessException.class, () -> userAvailabilityService.checkAvailability(" ", null));
+    }
+}
@@ -0,0 +1,118 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.enums.CountStrategy;
+import com.eddy.dream.event.UsersCreatedEvent;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.impl.UserCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCounterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Cached - one COUNT(*) per TTL, creations added in between")
+    void testCachedCountIncremental() {
+        UserCounter counter = new UserCounter(userRepository, jdbcTemplate, CountStrategy.CACHED, 3600);
+        when(userRepository.count()).thenReturn(100L);
+
+        assertEquals(100L, counter.count(CountStrategy.CACHED));
+        counter.onUsersCreated(new UsersCreatedEvent(1));
+        counter.onUsersCreated(new UsersCreatedEvent(1000));
+
+        assertEquals(1101L, counter.count(CountStrategy.CACHED));
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Cached - creations before the first count are not double counted")
+    void testCreatedBeforeFirstCount() {
+        UserCounter counter = new UserCounter(userRepository, jdbcTemplate, CountStrategy.CACHED, 3600);
+        when(userRepository.count()).thenReturn(5L);
+
+        counter.onUsersCreated(new UsersCreatedEvent(5));
+
+        assertEquals(5L, counter.count(CountStrategy.CACHED));
+    }
+
+    @Test
+    @DisplayName("Cached - expired count is refreshed")
+    void testCachedCountExpires() {
+        UserCounter counter = new UserCounter(userRepository, jdbcTemplate, CountStrategy.CACHED, 0);
+        when(userRepository.count()).thenReturn(1L, 2L);
+
+        assertEquals(1L, counter.count(CountStrategy.CACHED));
+        assertEquals(2L, counter.count(CountStrategy.CACHED));
+    }
+
+    @Test
+    @DisplayName("Estimated - table statistics, no COUNT(*)")
+    void testEstimatedCount() {
+        UserCounter counter = new UserCounter(userRepository, jdbcTemplate, CountStrategy.CACHED, 3600);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(998L);
+
+        assertEquals(998L, counter.count(CountStrategy.ESTIMATED));
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Estimated - without table statistics falls back to the cached count, checked once")
+    void testEstimatedFallsBack() {
+        UserCounter counter = new UserCounter(userRepository, jdbcTemplate, CountStrategy.CACHED, 3600);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+            .thenThrow(new BadSqlGrammarException("estimate", "SELECT", new SQLException("no such table")));
+        when(userRepository.count()).thenReturn(7L);
+
+        assertEquals(7L, counter.count(CountStrategy.ESTIMATED));
+        assertEquals(7L, counter.count(CountStrategy.ESTIMATED));
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Estimated - transient failures fall back for that call only")
+    void testEstimatedTransientFailure() {
+        UserCounter counter = new UserCounter(userRepository, jdbcTemplate, CountStrategy.CACHED, 3600);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+            .thenThrow(new QueryTimeoutException("statistics timed out"))
+            .thenThrow(new DataAccessResourceFailureException("connection lost"))
+            .thenReturn(998L);
+        when(userRepository.count()).thenReturn(7L);
+
+        assertEquals(7L, counter.count(CountStrategy.ESTIMATED));
+        assertEquals(7L, counter.count(CountStrategy.ESTIMATED));
+        assertEquals(998L, counter.count(CountStrategy.ESTIMATED));
+        verify(jdbcTemplate, times(3)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Exact and none")
+    void testExactAndNone() {
+        UserCounter counter = new UserCounter(userRepository, jdbcTemplate, CountStrategy.CACHED, 3600);
+        when(userRepository.count()).thenReturn(3L, 4L);
+
+        assertEquals(3L, counter.count(CountStrategy.EXACT));
+        assertEquals(4L, counter.count(CountStrategy.EXACT));
+        assertNull(counter.count(CountStrategy.NONE));
+    }
+}
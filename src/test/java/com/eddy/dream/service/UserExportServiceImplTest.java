@@ -0,0 +1,190 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.impl.UserExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk export against H2 - both formats, and flat heap use for millions of rows
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "user-export.fetch-size=2"
+})
+@Import({UserExportServiceImpl.class, TimeOrderedUserIdGenerator.class, UserExportServiceImplTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserExportServiceImplTest {
+
+    /**
+     * Rows exported in a child JVM limited to HEAP_LIMIT - far more than that heap could hold at once
+     */
+    private static final int HEAP_CHECK_ROWS = 2_000_000;
+
+    private static final String HEAP_LIMIT = "-Xmx48m";
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("NDJSON - one user per line, oldest first, no password")
+    void testExportNdjson() {
+        saveUsers();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = userExportService.exportUsers(output, UserExportService.Format.NDJSON);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"username\":\"alice\""), lines[0]);
+        assertTrue(lines[0].contains("\"lastLoginAt\":\"2025-03-01T10:15:30\""), lines[0]);
+        assertTrue(lines[2].contains("\"username\":\"carol\""), lines[2]);
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("password"));
+    }
+
+    @Test
+    @DisplayName("CSV - header row, then one user per row")
+    void testExportCsv() {
+        saveUsers();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        userExportService.exportUsers(output, UserExportService.Format.CSV);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, lines.size());
+        assertEquals("id,username,email,phone,status,createdAt,lastLoginAt", lines.get(0));
+        assertTrue(lines.get(1).contains(",alice,alice@example.com,,ACTIVE,"), lines.get(1));
+        assertTrue(lines.get(1).endsWith(",2025-03-01T10:15:30"), lines.get(1));
+        assertTrue(lines.get(2).contains(",bob,bob@example.com,\"+1234567890\",LOCKED,"), lines.get(2));
+    }
+
+    @Test
+    @DisplayName("Heap - millions of rows exported under a small -Xmx")
+    void testExportHeapIsFlat(@TempDir Path directory) throws Exception {
+        Path log = directory.resolve("heap-check.log");
+        Process process = new ProcessBuilder(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            HEAP_LIMIT,
+            "-XX:+ExitOnOutOfMemoryError",
+            "-cp", System.getProperty("java.class.path"),
+            HeapCheck.class.getName(),
+            directory.resolve("users").toString(),
+            String.valueOf(HEAP_CHECK_ROWS)
+        )
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+
+        assertTrue(process.waitFor(5, TimeUnit.MINUTES), "Export did not finish");
+        String output = Files.readString(log);
+        assertEquals(0, process.exitValue(), output);
+        assertTrue(output.contains("exported=" + HEAP_CHECK_ROWS), output);
+    }
+
+    private void saveUsers() {
+        userRepository.save(UserEntity.builder()
+            .username("alice").email("alice@example.com").password("hash").status(UserStatus.ACTIVE)
+            .lastLoginAt(LocalDateTime.of(2025, 3, 1, 10, 15, 30)).build());
+        userRepository.save(UserEntity.builder()
+            .username("bob").email("bob@example.com").phone("+1234567890").password("hash")
+            .status(UserStatus.LOCKED).build());
+        userRepository.save(UserEntity.builder()
+            .username("carol").email("carol@example.com").password("hash").status(UserStatus.ACTIVE).build());
+    }
+
+    /**
+     * Child JVM: fills a file-based H2 database, then exports it into a stream that only counts bytes
+     */
+    static class HeapCheck {
+
+        public static void main(String[] args) {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:file:" + new File(args[0]).getAbsolutePath() + ";MODE=MySQL");
+            dataSource.setUser("sa");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(50), "
+                + "email VARCHAR(100), phone VARCHAR(20), password VARCHAR(255), status VARCHAR(20), "
+                + "created_at TIMESTAMP, last_login_at TIMESTAMP, updated_at TIMESTAMP)");
+            jdbcTemplate.execute("INSERT INTO users (id, username, email, password, status, created_at, updated_at) "
+                + "SELECT X, 'user' || X, 'user' || X || '@example.com', 'hash', 'ACTIVE', "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, " + Integer.parseInt(args[1]) + ")");
+
+            ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+            CountingOutputStream output = new CountingOutputStream();
+            long exported = new UserExportServiceImpl(jdbcTemplate, objectMapper, 1000)
+                .exportUsers(output, UserExportService.Format.NDJSON);
+
+            Runtime runtime = Runtime.getRuntime();
+            System.out.println("exported=" + exported + " bytes=" + output.bytes
+                + " maxHeapMb=" + runtime.maxMemory() / (1024 * 1024));
+        }
+    }
+
+    static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            // As configured by Spring Boot
+            return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.config.security.BCryptCalibration;
+import com.eddy.dream.dto.response.UserImportResult;
+import com.eddy.dream.dto.response.UserImportSummary;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.impl.UserImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk import against H2 - parsing, validation, duplicate handling and batching end to end
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "user-import.batch-size=3",
+    "user-import.hashing-threads=2"
+})
+@Import({UserImportServiceImpl.class, TimeOrderedUserIdGenerator.class, UserMissCache.class,
+    InMemoryUserCacheStore.class, UserImportServiceImplTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceImplTest {
+
+    private static final String HASH = new BCryptPasswordEncoder(4).encode("Password123!");
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("NDJSON - one result per row, in input order")
+    void testImportNdjson() {
+        userRepository.save(UserEntity.builder()
+            .username("existing").email("existing@example.com").password(HASH).status(UserStatus.ACTIVE).build());
+        String input = """
+            {"username":"alice","email":"alice@example.com","password":"Password123!"}
+            {"username":"bob","email":"bob@example.com","passwordHash":"%s"}
+            {"username":"x","email":"not-an-email","password":"short"}
+            {"username":
+
+            {"username":"existing","email":"new@example.com","password":"Password123!"}
+            {"username":"ALICE","email":"alice2@example.com","password":"Password123!"}
+            {"username":"carol","email":"carol@example.com","password":"Password123!","unknown":1}
+            """.formatted(HASH);
+        List<UserImportResult> results = new ArrayList<>();
+
+        UserImportSummary summary = userImportService.importUsers(
+            stream(input), UserImportService.Format.NDJSON, results::add);
+
+        assertEquals(List.of(
+            UserImportResult.Status.CREATED,
+            UserImportResult.Status.CREATED,
+            UserImportResult.Status.INVALID,
+            UserImportResult.Status.INVALID,
+            UserImportResult.Status.DUPLICATE,
+            UserImportResult.Status.DUPLICATE,
+            UserImportResult.Status.CREATED
+        ), results.stream().map(UserImportResult::getStatus).toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), results.stream().map(UserImportResult::getRow).toList());
+        assertEquals(4, results.get(2).getErrors().size());
+        assertTrue(results.get(3).getErrors().get(0).startsWith("Malformed JSON"));
+        assertEquals("User already exists, username: existing", results.get(4).getErrors().get(0));
+        assertEquals(7, summary.getTotal());
+        assertEquals(3, summary.getCreated());
+        assertEquals(2, summary.getInvalid());
+        assertEquals(2, summary.getDuplicate());
+
+        assertEquals(HASH, userRepository.findByUsername("bob").orElseThrow().getPassword());
+        UserEntity alice = userRepository.findByUsername("alice").orElseThrow();
+        assertTrue(new BCryptPasswordEncoder().matches("Password123!", alice.getPassword()));
+        assertEquals(UserStatus.ACTIVE, alice.getStatus());
+        assertNotNull(alice.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("CSV - header row, duplicates across batches rejected by the table check")
+    void testImportCsv() {
+        String input = """
+            username,email,password,passwordHash
+            user1,user1@example.com,Password123!,
+            user2,user2@example.com,,%s
+            user3,user3@example.com,Password123!,
+            user4,user1@example.com,Password123!,
+            user5 , user5@example.com , Password123! ,
+            """.formatted(HASH);
+        List<UserImportResult> results = new ArrayList<>();
+
+        UserImportSummary summary = userImportService.importUsers(
+            stream(input), UserImportService.Format.CSV, results::add);
+
+        assertEquals(5, summary.getTotal());
+        assertEquals(4, summary.getCreated());
+        assertEquals(UserImportResult.Status.DUPLICATE, results.get(3).getStatus());
+        assertEquals("Email already exists, email: user1@example.com", results.get(3).getErrors().get(0));
+        assertEquals(4, userRepository.count());
+        assertTrue(userRepository.findByUsername("user5").isPresent());
+    }
+
+    @Test
+    @DisplayName("Duplicates within the file - accents and width folded like the unique indexes")
+    void testImportFoldedDuplicates() {
+        String input = """
+            {"username":"jose","email":"jose@example.com","password":"Password123!"}
+            {"username":"jose2","email":"JOSÉ@example.com","password":"Password123!"}
+            {"username":"ｊｏｓｅ","email":"jose3@example.com","password":"Password123!"}
+            """;
+        List<UserImportResult> results = new ArrayList<>();
+
+        UserImportSummary summary = userImportService.importUsers(
+            stream(input), UserImportService.Format.NDJSON, results::add);
+
+        assertEquals(1, summary.getCreated());
+        assertEquals("Email appears more than once in this import", results.get(1).getErrors().get(0));
+        assertEquals(UserImportResult.Status.DUPLICATE, results.get(1).getStatus());
+        assertEquals(1, userRepository.count());
+        assertTrue(userRepository.findByUsername("jose").isPresent());
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        BCryptCalibration bcryptCalibration() {
+            return BCryptCalibration.fixed(4);
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.event.UserKeysTakenEvent;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserCacheStore;
+import com.eddy.dream.service.cache.UserKeyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Username/email Bloom filter built from H2; a second filter on the same store stands in for another node
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "user.key-filter.expected-insertions=4",
+    "user.key-filter.fetch-size=2"
+})
+@Import({UserKeyFilter.class, InMemoryUserCacheStore.class, TimeOrderedUserIdGenerator.class,
+    UserKeyFilterTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserKeyFilterTest {
+
+    @Autowired
+    private UserKeyFilter userKeyFilter;
+
+    @Autowired
+    private UserCacheStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Build - every stored username and email maybe taken, case-insensitive; others definitely free")
+    void testBuild() {
+        save("alice", "alice@example.com");
+        save("Bob", "Bob@Example.com");
+
+        userKeyFilter.rebuild();
+
+        assertTrue(userKeyFilter.mightBeTaken("ALICE"));
+        assertTrue(userKeyFilter.mightBeTaken("bob"));
+        assertTrue(userKeyFilter.mightBeTaken("bob@example.com"));
+        assertFalse(userKeyFilter.mightBeTaken("carol"));
+        assertFalse(userKeyFilter.mightBeTaken("carol@example.com"));
+        assertEquals(4.0, meterRegistry.get("user.keys.bloom.entries").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Collation - accent and width variants maybe taken; keys the fold does not cover never definitely free")
+    void testCollationVariants() {
+        save("alice", "jos\u00e9@example.com");
+
+        userKeyFilter.rebuild();
+
+        assertTrue(userKeyFilter.mightBeTaken("\u00c0lice"));
+        assertTrue(userKeyFilter.mightBeTaken("\uff41\uff4c\uff49\uff43\uff45"));
+        assertTrue(userKeyFilter.mightBeTaken("jose@example.com"));
+        assertTrue(userKeyFilter.mightBeTaken("stra\u00dfe@example.com"));
+        assertFalse(userKeyFilter.covers("stra\u00dfe@example.com"));
+        assertFalse(userKeyFilter.covers("alice "));
+        assertTrue(userKeyFilter.covers("\u00c0lice"));
+    }
+
+    @Test
+    @DisplayName("Not built yet - every key maybe taken")
+    void testBeforeFirstBuild() {
+        UserKeyFilter node = node();
+
+        assertTrue(node.mightBeTaken("carol"));
+    }
+
+    @Test
+    @DisplayName("Keys taken - added on every node")
+    void testKeysTakenOnEveryNode() {
+        userKeyFilter.rebuild();
+        UserKeyFilter otherNode = node();
+        otherNode.rebuild();
+
+        otherNode.onKeysTaken(new UserKeysTakenEvent(List.of("Carol", "carol@example.com")));
+
+        assertTrue(userKeyFilter.mightBeTaken("carol"));
+        assertTrue(userKeyFilter.mightBeTaken("carol@example.com"));
+        assertTrue(otherNode.mightBeTaken("carol"));
+    }
+
+    @Test
+    @DisplayName("Rebuild - freed keys fall out, an outgrown filter is re-sized")
+    void testRebuild() {
+        UserEntity alice = save("alice", "alice@example.com");
+        userKeyFilter.rebuild();
+        alice.setEmail("alice@example.org");
+        userRepository.save(alice);
+        for (int i = 0; i < 20; i++) {
+            save("user" + i, "user" + i + "@example.com");
+        }
+
+        userKeyFilter.rebuild();
+
+        assertFalse(userKeyFilter.mightBeTaken("alice@example.com"));
+        assertTrue(userKeyFilter.mightBeTaken("alice@example.org"));
+        assertTrue(userKeyFilter.mightBeTaken("user19@example.com"));
+        // Sized for twice the 42 keys found instead of the configured 4
+        assertTrue(meterRegistry.get("user.keys.bloom.expected.false.positive.rate").gauge().value() < 0.01);
+    }
+
+    private UserKeyFilter node() {
+        UserKeyFilter node = new UserKeyFilter(jdbcTemplate, store, new SimpleMeterRegistry(), true, 4, 0.01, 2);
+        node.init();
+        return node;
+    }
+
+    private UserEntity save(String username, String email) {
+        return userRepository.save(UserEntity.builder()
+            .username(username).email(email).password("hash").status(UserStatus.ACTIVE).build());
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
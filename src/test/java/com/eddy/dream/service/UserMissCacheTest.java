@@ -0,0 +1,133 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserCacheStore;
+import com.eddy.dream.service.cache.UserMissCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two nodes sharing one in-memory store, standing in for two application instances sharing Redis
+ */
+class UserMissCacheTest {
+
+    private SimpleMeterRegistry meterRegistryA;
+
+    private UserMissCache nodeA;
+
+    private UserMissCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        UserCacheStore store = new InMemoryUserCacheStore(1000, 300);
+        meterRegistryA = new SimpleMeterRegistry();
+        nodeA = node(store, meterRegistryA, true);
+        nodeB = node(store, new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    @DisplayName("Recorded misses - IDs exact, usernames case-insensitive")
+    void testRecordMisses() {
+        nodeA.recordMissingId(9L);
+        nodeA.recordMissingUsername("Ghost");
+
+        assertTrue(nodeA.isMissingId(9L));
+        assertFalse(nodeA.isMissingId(10L));
+        assertTrue(nodeA.isMissingUsername("ghost"));
+        assertFalse(nodeA.isMissingUsername("alice"));
+    }
+
+    @Test
+    @DisplayName("Recorded misses - accent variants share the entry, usernames the fold does not cover not recorded")
+    void testRecordMissesCollation() {
+        nodeA.recordMissingUsername("Gh\u00f6st");
+        nodeA.recordMissingUsername("stra\u00dfe");
+
+        assertTrue(nodeA.isMissingUsername("ghost"));
+        assertFalse(nodeA.isMissingUsername("stra\u00dfe"));
+
+        nodeB.created(9L, "ghost");
+
+        assertFalse(nodeA.isMissingUsername("Gh\u00f6st"));
+    }
+
+    @Test
+    @DisplayName("Created - the new user stops being a miss on every node")
+    void testCreatedEvictsOnEveryNode() {
+        nodeA.recordMissingId(9L);
+        nodeA.recordMissingUsername("ghost");
+        nodeB.recordMissingId(9L);
+        nodeB.recordMissingUsername("ghost");
+
+        nodeB.created(9L, "Ghost");
+
+        assertFalse(nodeA.isMissingId(9L));
+        assertFalse(nodeA.isMissingUsername("ghost"));
+        assertFalse(nodeB.isMissingId(9L));
+        assertFalse(nodeB.isMissingUsername("ghost"));
+    }
+
+    @Test
+    @DisplayName("Created - broadcast failure still evicts locally")
+    void testCreatedStoreFailure() {
+        UserCacheStore store = mock(UserCacheStore.class);
+        doThrow(new RedisConnectionFailureException("down")).when(store).publishCreated(any(), any());
+        UserMissCache node = node(store, new SimpleMeterRegistry(), true);
+        node.recordMissingId(9L);
+
+        node.created(9L, "ghost");
+
+        assertFalse(node.isMissingId(9L));
+    }
+
+    @Test
+    @DisplayName("Clear - bulk creation drops every entry")
+    void testClear() {
+        nodeA.recordMissingId(9L);
+        nodeA.recordMissingUsername("ghost");
+
+        nodeA.clear();
+
+        assertFalse(nodeA.isMissingId(9L));
+        assertFalse(nodeA.isMissingUsername("ghost"));
+    }
+
+    @Test
+    @DisplayName("Hit ratio - share of lookups answered by the miss cache")
+    void testHitRatio() {
+        assertEquals(0.0, meterRegistryA.get("user.miss.hit.ratio").gauge().value());
+
+        nodeA.recordMissingId(9L);
+        nodeA.isMissingId(9L);
+        nodeA.isMissingId(9L);
+        nodeA.isMissingId(1L);
+        nodeA.isMissingUsername("alice");
+
+        assertEquals(0.5, meterRegistryA.get("user.miss.hit.ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Disabled - nothing recorded")
+    void testDisabled() {
+        UserMissCache node = node(new InMemoryUserCacheStore(1000, 300), new SimpleMeterRegistry(), false);
+
+        node.recordMissingId(9L);
+        node.recordMissingUsername("ghost");
+
+        assertFalse(node.isMissingId(9L));
+        assertFalse(node.isMissingUsername("ghost"));
+    }
+
+    private static UserMissCache node(UserCacheStore store, SimpleMeterRegistry meterRegistry, boolean enabled) {
+        UserMissCache node = new UserMissCache(store, meterRegistry, enabled, 1000, 10);
+        node.init();
+        return node;
+    }
+}
@@ -0,0 +1,233 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.exception.ResourceNotFoundException;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserCacheStore;
+import com.eddy.dream.service.cache.UserResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two nodes sharing one in-memory store, standing in for two application instances sharing Redis
+ */
+@ExtendWith(MockitoExtension.class)
+class UserResponseCacheTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactoryA;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactoryB;
+
+    private SimpleMeterRegistry meterRegistryA;
+
+    private UserResponseCache nodeA;
+
+    private UserResponseCache nodeB;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String email = "alice@example.com";
+
+    @BeforeEach
+    void setUp() {
+        UserCacheStore store = new InMemoryUserCacheStore(1000, 300);
+        meterRegistryA = new SimpleMeterRegistry();
+        nodeA = node(store, entityManagerFactoryA, meterRegistryA);
+        nodeB = node(store, entityManagerFactoryB, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Get by ID - loaded once, then served from L1 and, on another node, from L2")
+    void testGetById() {
+        nodeA.getById(1L, this::load);
+        nodeA.getById(1L, this::load);
+        UserResponse fromStore = nodeB.getById(1L, this::load);
+
+        assertEquals("alice@example.com", fromStore.getEmail());
+        assertEquals(1, loads.get());
+        assertEquals(0.0, meterRegistryA.get("user.response.l2.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistryA.get("user.response.l2.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Get by username - case-insensitive, shares the entry cached by ID")
+    void testGetByUsername() {
+        nodeA.getById(1L, this::load);
+
+        UserResponse user = nodeB.getByUsername("Alice", username -> {
+            throw new AssertionError("not cached");
+        });
+
+        assertEquals(1L, user.getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Batch - cached users served from L1 and L2, only the rest loaded, in one call")
+    void testGetAll() {
+        nodeA.getById(1L, this::load);
+        List<Collection<Long>> batches = new ArrayList<>();
+
+        Map<Long, UserResponse> users = nodeB.getAllById(List.of(1L, 2L, 3L), ids -> {
+            batches.add(List.copyOf(ids));
+            return List.of(UserResponse.builder().id(2L).username("bob").status("ACTIVE").build());
+        });
+        Map<String, UserResponse> byUsername = nodeA.getAllByUsername(List.of("Alice", "BOB"), usernames -> {
+            throw new AssertionError("not cached");
+        });
+
+        assertEquals(Set.of(1L, 2L), users.keySet());
+        assertEquals(List.of(List.of(2L, 3L)), batches);
+        assertEquals(1L, byUsername.get("alice").getId());
+        assertEquals(2L, byUsername.get("bob").getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Invalidate - a write on one node drops the user from every node's L1 and entity cache")
+    void testCrossNodeInvalidation() {
+        nodeA.getById(1L, this::load);
+        nodeB.getById(1L, this::load);
+
+        email = "alice@example.org";
+        nodeB.onUserChanged(new UserChangedEvent(1L, "alice", UserChangedEvent.ChangeType.UPDATED));
+
+        assertEquals("alice@example.org", nodeA.getById(1L, this::load).getEmail());
+        assertEquals(2, loads.get());
+        verify(entityManagerFactoryA.getCache()).evict(UserEntity.class, 1L);
+        // The writing node at once, then again on its own broadcast
+        verify(entityManagerFactoryB.getCache(), atLeastOnce()).evict(UserEntity.class, 1L);
+    }
+
+    @Test
+    @DisplayName("Invalidate - the writing node drops the user before its own broadcast arrives")
+    void testInvalidationAppliedLocallyAtOnce() {
+        UserCacheStore store = new InMemoryUserCacheStore(1000, 300) {
+            @Override
+            public void subscribe(Consumer<Collection<Long>> listener) {
+                // Broadcasts never reach this node
+            }
+        };
+        UserResponseCache node = node(store, entityManagerFactoryA, new SimpleMeterRegistry());
+        node.getById(1L, this::load);
+
+        email = "alice@example.org";
+        node.invalidate(List.of(1L));
+
+        assertEquals("alice@example.org", node.getById(1L, this::load).getEmail());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Password changes - cached user kept")
+    void testCredentialsChangeKeepsUser() {
+        nodeA.getById(1L, this::load);
+
+        nodeA.onUserChanged(new UserChangedEvent(1L, "alice", UserChangedEvent.ChangeType.CREDENTIALS_CHANGED));
+        nodeA.getById(1L, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Load overlapping an invalidation - returned but not cached")
+    void testLoadRacingInvalidation() {
+        UserResponse stale = nodeA.getById(1L, id -> {
+            UserResponse user = load(id);
+            nodeB.invalidate(List.of(id));
+            return user;
+        });
+
+        assertNotNull(stale);
+        nodeB.getById(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Load overlapping an invalidation whose broadcast has not arrived - not put in L2")
+    void testLoadRacingUndeliveredInvalidation() {
+        UserCacheStore store = new InMemoryUserCacheStore(1000, 300) {
+            @Override
+            public void subscribe(Consumer<Collection<Long>> listener) {
+                // Broadcasts never reach this node
+            }
+        };
+        UserResponseCache node = node(store, entityManagerFactoryA, new SimpleMeterRegistry());
+
+        node.getById(1L, id -> {
+            UserResponse user = load(id);
+            store.invalidate(List.of(id));
+            return user;
+        });
+
+        assertNull(store.get(1L));
+    }
+
+    @Test
+    @DisplayName("Unknown user - loader's exception passed through, nothing cached")
+    void testMissNotCached() {
+        Function<Long, UserResponse> missing = id -> {
+            loads.incrementAndGet();
+            throw new ResourceNotFoundException("User", id);
+        };
+
+        assertThrows(ResourceNotFoundException.class, () -> nodeA.getById(9L, missing));
+        assertThrows(ResourceNotFoundException.class, () -> nodeA.getById(9L, missing));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Store unavailable - lookups fall through to the loader, invalidation still applied locally")
+    void testStoreFailure() {
+        UserCacheStore store = mock(UserCacheStore.class);
+        when(store.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(store).invalidate(any());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserResponseCache node = node(store, entityManagerFactoryA, meterRegistry);
+
+        node.getById(1L, this::load);
+        node.invalidate(List.of(1L));
+        node.getById(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(3.0, meterRegistry.get("user.response.l2.errors").counter().count());
+    }
+
+    private UserResponse load(Long id) {
+        loads.incrementAndGet();
+        return UserResponse.builder().id(id).username("alice").email(email).status("ACTIVE").build();
+    }
+
+    private static UserResponseCache node(
+        UserCacheStore store, EntityManagerFactory entityManagerFactory, SimpleMeterRegistry meterRegistry
+    ) {
+        UserResponseCache node = new UserResponseCache(store, entityManagerFactory, meterRegistry, true, 1000, 30);
+        node.init();
+        return node;
+    }
+}
@@ -0,0 +1,174 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.config.HibernateCacheConfig;
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.config.security.UserAuthorities;
+import com.eddy.dream.config.security.UserDetailsServiceImpl;
+import com.eddy.dream.dto.request.UpdateUserRequest;
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.mapper.UserMapperImpl;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.cache.UserResponseCache;
+import com.eddy.dream.service.impl.LastLoginBuffer;
+import com.eddy.dream.service.impl.UserCounter;
+import com.eddy.dream.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level and natural-id cache for UserEntity against H2, checked with Hibernate statistics
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "user.entity-cache.enabled=true",
+    // Hibernate's cache is under test, not the UserResponse cache in front of it
+    "user.response-cache.enabled=false"
+})
+@Import({HibernateCacheConfig.class, UserServiceImpl.class, UserMapperImpl.class, LastLoginBuffer.class,
+    UserResponseCache.class, UserMissCache.class, InMemoryUserCacheStore.class, UserCounter.class,
+    TimeOrderedUserIdGenerator.class, UserDetailsServiceImpl.class, UserAuthorities.class,
+    UserServiceImplEntityCacheTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserServiceImplEntityCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UserEntity alice;
+
+    private UserEntity bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Get by ID - second read served from the entity cache")
+    void testGetUserById() {
+        userService.getUserById(bob.getId());
+        UserResponse cached = userService.getUserById(bob.getId());
+
+        assertEquals("bob", cached.getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Get by username and load user details - natural-id cache, one statement in total")
+    void testNaturalIdLoads() {
+        userService.getUserByUsername("alice");
+        UserResponse cached = userService.getUserByUsername("alice");
+        userDetailsService.loadUserByUsername("alice");
+
+        assertEquals(alice.getId(), cached.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() >= 2);
+    }
+
+    @Test
+    @DisplayName("Batch lookup by ID - cached users are not queried again")
+    void testGetUsersBatch() {
+        userService.getUserById(alice.getId());
+        statistics.clear();
+
+        List<UserResponse> users = userService.getUsers(List.of(alice.getId(), bob.getId()), null).getUsers();
+        userService.getUsers(List.of(alice.getId(), bob.getId()), null);
+
+        assertEquals(List.of("alice", "bob"), users.stream().map(UserResponse::getUsername).toList());
+        // Only bob, in the first batch
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Update - the cached user is replaced, next read sees the new email without a query")
+    void testUpdateRefreshesCache() {
+        userService.getUserById(bob.getId());
+
+        userService.updateUser(bob.getId(), UpdateUserRequest.builder().email("bob@example.org").build());
+        statistics.clear();
+
+        assertEquals("bob@example.org", userService.getUserById(bob.getId()).getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Last-login flush - written users are evicted, next read sees the new time")
+    void testLastLoginFlushEvicts() {
+        userService.getUserById(bob.getId());
+        LocalDateTime loginAt = LocalDateTime.of(2025, 3, 1, 10, 15, 30);
+
+        lastLoginBuffer.record(bob.getId(), loginAt);
+        lastLoginBuffer.flush();
+
+        assertEquals(loginAt, userService.getUserById(bob.getId()).getLastLoginAt());
+    }
+
+    private static UserEntity user(String username) {
+        return UserEntity.builder()
+            .username(username)
+            .email(username + "@example.com")
+            .password("hash")
+            .status(UserStatus.ACTIVE)
+            .build();
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
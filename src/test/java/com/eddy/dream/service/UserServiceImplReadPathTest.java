@@ -0,0 +1,145 @@
+package com.eddy.dream.service;
+
+import com.eddy.dream.config.id.TimeOrderedUserIdGenerator;
+import com.eddy.dream.dto.response.PageResponse;
+import com.eddy.dream.dto.response.UserBatchResponse;
+import com.eddy.dream.dto.response.UserResponse;
+import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.CountStrategy;
+import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.mapper.UserMapperImpl;
+import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.InMemoryUserCacheStore;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.cache.UserResponseCache;
+import com.eddy.dream.service.impl.LastLoginBuffer;
+import com.eddy.dream.service.impl.UserCounter;
+import com.eddy.dream.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read endpoints against H2, checked with Hibernate statistics - listings as DTO projections, lookups as entity loads
+ * (second-level cache off here, see UserServiceImplEntityCacheTest)
+ */
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({UserServiceImpl.class, UserMapperImpl.class, LastLoginBuffer.class, UserResponseCache.class,
+    UserMissCache.class, InMemoryUserCacheStore.class, UserCounter.class, TimeOrderedUserIdGenerator.class,
+    UserServiceImplReadPathTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserServiceImplReadPathTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private List<UserEntity> users;
+
+    @BeforeEach
+    void setUp() {
+        users = userRepository.saveAll(List.of(
+            user("alice", UserStatus.ACTIVE),
+            user("bob", UserStatus.LOCKED),
+            user("carol", UserStatus.ACTIVE)
+        ));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Get by ID and username - one query each")
+    void testGetUser() {
+        UserResponse byId = userService.getUserById(users.get(1).getId());
+        UserResponse byUsername = userService.getUserByUsername("alice");
+
+        assertEquals("bob", byId.getUsername());
+        assertEquals("LOCKED", byId.getStatus());
+        assertEquals("bob@example.com", byId.getEmail());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 10, 15, 30), byId.getLastLoginAt());
+        assertNotNull(byId.getCreatedAt());
+        assertEquals(users.get(0).getId(), byUsername.getId());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Offset and cursor pages - newest first, no entity loaded")
+    void testPages() {
+        PageResponse<UserResponse> exact = userService.getAllUsers(0, 2, CountStrategy.EXACT);
+        PageResponse<UserResponse> slice = userService.getAllUsers(1, 2, CountStrategy.NONE);
+        PageResponse<UserResponse> cursor = userService.getUsersAfter(exact.getNextCursor(), 2);
+
+        assertEquals(List.of("carol", "bob"), exact.getContent().stream().map(UserResponse::getUsername).toList());
+        assertEquals(3L, exact.getTotalElements());
+        assertEquals(List.of("alice"), slice.getContent().stream().map(UserResponse::getUsername).toList());
+        assertTrue(slice.isLast());
+        assertEquals(List.of("alice"), cursor.getContent().stream().map(UserResponse::getUsername).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Batch lookup - one IN query per key type")
+    void testGetUsersBatch() {
+        UserBatchResponse result = userService.getUsers(
+            List.of(users.get(2).getId(), users.get(0).getId(), -1L), List.of("bob", "alice", "dave"));
+
+        assertEquals(List.of("carol", "alice", "bob"), result.getUsers().stream().map(UserResponse::getUsername).toList());
+        assertEquals(List.of(-1L), result.getMissingIds());
+        assertEquals(List.of("dave"), result.getMissingUsernames());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private static UserEntity user(String username, UserStatus status) {
+        return UserEntity.builder()
+            .username(username)
+            .email(username + "@example.com")
+            .password("hash")
+            .status(status)
+            .lastLoginAt(LocalDateTime.of(2025, 3, 1, 10, 15, 30))
+            .build();
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -2,14 +2,24 @@ package com.eddy.dream.service;
 
 import com.eddy.dream.dto.request.UpdateUserRequest;
 import com.eddy.dream.dto.response.PageResponse;
+import com.eddy.dream.dto.response.UserBatchResponse;
 import com.eddy.dream.dto.response.UserResponse;
 import com.eddy.dream.entity.UserEntity;
+import com.eddy.dream.enums.CountStrategy;
 import com.eddy.dream.enums.UserStatus;
+import com.eddy.dream.event.UserChangedEvent;
+import com.eddy.dream.event.UserKeysTakenEvent;
+import com.eddy.dream.exception.BusinessException;
 import com.eddy.dream.exception.DuplicateResourceException;
 import com.eddy.dream.exception.ResourceNotFoundException;
 import com.eddy.dream.mapper.UserMapper;
 import com.eddy.dream.repository.UserRepository;
+import com.eddy.dream.service.cache.UserMissCache;
+import com.eddy.dream.service.cache.UserResponseCache;
+import com.eddy.dream.service.impl.LastLoginBuffer;
+import com.eddy.dream.service.impl.UserCounter;
 import com.eddy.dream.service.impl.UserServiceImpl;
+import com.eddy.dream.util.UserCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,17 +28,35 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +68,21 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Mock
+    private UserCounter userCounter;
+
+    @Mock
+    private UserResponseCache userResponseCache;
+
+    @Mock
+    private UserMissCache userMissCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -71,6 +114,20 @@ class UserServiceImplTest {
         updateUserRequest = new UpdateUserRequest();
         updateUserRequest.setEmail("newemail@example.com");
         updateUserRequest.setPhone("+9876543210");
+
+        // Cache misses by default - every lookup goes to the loader
+        lenient().when(userResponseCache.getById(anyLong(), any())).thenAnswer(invocation ->
+            invocation.<Function<Long, UserResponse>>getArgument(1).apply(invocation.getArgument(0)));
+        lenient().when(userResponseCache.getByUsername(anyString(), any())).thenAnswer(invocation ->
+            invocation.<Function<String, UserResponse>>getArgument(1).apply(invocation.getArgument(0)));
+        lenient().when(userResponseCache.getAllById(anyCollection(), any())).thenAnswer(invocation ->
+            invocation.<Function<Collection<Long>, List<UserResponse>>>getArgument(1)
+                .apply(invocation.getArgument(0)).stream()
+                .collect(Collectors.toMap(UserResponse::getId, Function.identity())));
+        lenient().when(userResponseCache.getAllByUsername(anyCollection(), any())).thenAnswer(invocation ->
+            invocation.<Function<Collection<String>, List<UserResponse>>>getArgument(1)
+                .apply(invocation.getArgument(0)).stream()
+                .collect(Collectors.toMap(user -> user.getUsername().toLowerCase(Locale.ROOT), Function.identity())));
     }
 
 
@@ -94,6 +151,16 @@ class UserServiceImplTest {
         verify(userMapper, times(1)).entityToResponse(userEntity);
     }
 
+    @Test
+    @DisplayName("Get User By ID - Served from the user cache")
+    void testGetUserByIdCached() {
+        doReturn(userResponse).when(userResponseCache).getById(eq(1L), any());
+
+        assertSame(userResponse, userService.getUserById(1L));
+
+        verify(userRepository, never()).findById(anyLong());
+    }
+
     @Test
     @DisplayName("Get User By ID - Not Found")
     void testGetUserByIdNotFound() {
@@ -109,6 +176,18 @@ class UserServiceImplTest {
         assertTrue(exception.getMessage().contains("User"));
         verify(userRepository, times(1)).findById(999L);
         verify(userMapper, never()).entityToResponse(any(UserEntity.class));
+        verify(userMissCache, times(1)).recordMissingId(999L);
+    }
+
+    @Test
+    @DisplayName("Get User By ID - Known miss answered without a query")
+    void testGetUserByIdKnownMiss() {
+        when(userMissCache.isMissingId(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(999L));
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(999L));
+
+        verify(userRepository, never()).findById(any());
+        verify(userResponseCache, never()).getById(any(), any());
     }
 
 
@@ -142,6 +221,96 @@ class UserServiceImplTest {
 
         assertTrue(exception.getMessage().contains("not found"));
         verify(userRepository, times(1)).findByUsername("nonexistent");
+        verify(userMissCache, times(1)).recordMissingUsername("nonexistent");
+    }
+
+    @Test
+    @DisplayName("Get User By Username - Known miss answered without a query")
+    void testGetUserByUsernameKnownMiss() {
+        when(userMissCache.isMissingUsername("nonexistent")).thenReturn(true);
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserByUsername("nonexistent"));
+
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Get Current User - Read once per request")
+    void testGetCurrentUserOncePerRequest() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
+        when(userMapper.entityToResponse(userEntity)).thenReturn(userResponse);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            assertSame(userResponse, userService.getCurrentUser(1L));
+            assertSame(userResponse, userService.getCurrentUser(1L));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        verify(userRepository, times(1)).findById(1L);
+
+        // Next request (or none) reads again
+        userService.getCurrentUser(1L);
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Get Current User - Deleted user")
+    void testGetCurrentUserNotFound() {
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getCurrentUser(999L));
+    }
+
+    @Test
+    @DisplayName("Get Users in Batch - One load per key type, request order, missing keys reported")
+    void testGetUsersBatch() {
+        UserEntity user2 = UserEntity.builder().id(2L).username("user2").build();
+        UserResponse response2 = UserResponse.builder().id(2L).username("user2").build();
+        when(userRepository.loadAllById(anyCollection())).thenReturn(List.of(user2, userEntity));
+        when(userRepository.loadAllByUsername(anyCollection())).thenReturn(List.of(userEntity));
+        when(userMapper.entityToResponse(userEntity)).thenReturn(userResponse);
+        when(userMapper.entityToResponse(user2)).thenReturn(response2);
+
+        UserBatchResponse result = userService.getUsers(List.of(1L, 2L, 1L, 999L), List.of("TestUser", "ghost"));
+
+        assertEquals(List.of(userResponse, response2), result.getUsers());
+        assertEquals(List.of(999L), result.getMissingIds());
+        assertEquals(List.of("ghost"), result.getMissingUsernames());
+        verify(userRepository, times(1)).loadAllById(List.of(1L, 2L, 999L));
+        verify(userRepository, times(1)).loadAllByUsername(anyCollection());
+        verify(userMissCache).recordMissingId(999L);
+        verify(userMissCache).recordMissingUsername("ghost");
+    }
+
+    @Test
+    @DisplayName("Get Users in Batch - Cached users and recent misses cost no query")
+    void testGetUsersBatchCached() {
+        when(userMissCache.isMissingId(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(999L));
+        doReturn(Map.of(1L, userResponse)).when(userResponseCache).getAllById(anyCollection(), any());
+
+        UserBatchResponse result = userService.getUsers(List.of(1L, 999L), null);
+
+        assertEquals(List.of(userResponse), result.getUsers());
+        assertEquals(List.of(999L), result.getMissingIds());
+        verify(userResponseCache).getAllById(eq(List.of(1L)), any());
+        verify(userRepository, never()).loadAllById(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Get Users in Batch - Only usernames skips the ID load, no keys is rejected")
+    void testGetUsersBatchKeyTypes() {
+        when(userRepository.loadAllByUsername(anyCollection())).thenReturn(List.of(userEntity));
+        when(userMapper.entityToResponse(userEntity)).thenReturn(userResponse);
+
+        UserBatchResponse result = userService.getUsers(null, List.of("testuser"));
+
+        assertEquals(List.of(userResponse), result.getUsers());
+        assertTrue(result.getMissingIds().isEmpty());
+        assertTrue(result.getMissingUsernames().isEmpty());
+        verify(userRepository, never()).loadAllById(anyCollection());
+
+        assertThrows(BusinessException.class, () -> userService.getUsers(List.of(), null));
     }
 
 
@@ -151,14 +320,13 @@ class UserServiceImplTest {
         int page = 0;
         int size = 10;
 
-        List<UserEntity> entities = Arrays.asList(userEntity);
+        List<UserResponse> entities = Arrays.asList(userResponse);
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        Page<UserEntity> userPage = new PageImpl<>(entities, pageable, entities.size());
+        Page<UserResponse> userPage = new PageImpl<>(entities, pageable, entities.size());
 
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
-        when(userMapper.entityToResponse(userEntity)).thenReturn(userResponse);
+        when(userRepository.findResponses(any(Pageable.class))).thenReturn(userPage);
 
-        PageResponse<UserResponse> result = userService.getAllUsers(page, size);
+        PageResponse<UserResponse> result = userService.getAllUsers(page, size, CountStrategy.EXACT);
 
         assertNotNull(result);
         assertNotNull(result.getContent());
@@ -173,8 +341,8 @@ class UserServiceImplTest {
         assertFalse(result.isHasNext());
         assertFalse(result.isHasPrevious());
 
-        verify(userRepository, times(1)).findAll(any(Pageable.class));
-        verify(userMapper, times(1)).entityToResponse(userEntity);
+        verify(userRepository, times(1)).findResponses(any(Pageable.class));
+        verify(userMapper, never()).entityToResponse(any(UserEntity.class));
     }
 
     @Test
@@ -183,13 +351,13 @@ class UserServiceImplTest {
         int page = 0;
         int size = 10;
 
-        List<UserEntity> entities = Collections.emptyList();
+        List<UserResponse> entities = Collections.emptyList();
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        Page<UserEntity> userPage = new PageImpl<>(entities, pageable, 0);
+        Page<UserResponse> userPage = new PageImpl<>(entities, pageable, 0);
 
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
+        when(userRepository.findResponses(any(Pageable.class))).thenReturn(userPage);
 
-        PageResponse<UserResponse> result = userService.getAllUsers(page, size);
+        PageResponse<UserResponse> result = userService.getAllUsers(page, size, CountStrategy.EXACT);
 
         assertNotNull(result);
         assertNotNull(result.getContent());
@@ -197,20 +365,13 @@ class UserServiceImplTest {
         assertEquals(0L, result.getTotalElements());
         assertEquals(0, result.getTotalPages()); // PageImpl 在 total=0 時 totalPages=0
 
-        verify(userRepository, times(1)).findAll(any(Pageable.class));
+        verify(userRepository, times(1)).findResponses(any(Pageable.class));
     }
 
     @Test
     @DisplayName("Get All Users With Pagination - Success")
     void testGetAllUsersWithPaginationSuccess() {
         // Given
-        UserEntity user2 = UserEntity.builder()
-            .id(2L)
-            .username("user2")
-            .email("user2@example.com")
-            .status(UserStatus.ACTIVE)
-            .build();
-
         UserResponse response2 = UserResponse.builder()
             .id(2L)
             .username("user2")
@@ -218,18 +379,16 @@ class UserServiceImplTest {
             .status("ACTIVE")
             .build();
 
-        Page<UserEntity> page = new PageImpl<>(
-            Arrays.asList(userEntity, user2),
+        Page<UserResponse> page = new PageImpl<>(
+            Arrays.asList(userResponse, response2),
             PageRequest.of(0, 10),
             2
         );
 
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(page);
-        when(userMapper.entityToResponse(userEntity)).thenReturn(userResponse);
-        when(userMapper.entityToResponse(user2)).thenReturn(response2);
+        when(userRepository.findResponses(any(Pageable.class))).thenReturn(page);
 
         // When
-        PageResponse<UserResponse> result = userService.getAllUsers(0, 10);
+        PageResponse<UserResponse> result = userService.getAllUsers(0, 10, CountStrategy.EXACT);
 
         // Then
         assertNotNull(result);
@@ -241,41 +400,40 @@ class UserServiceImplTest {
         assertTrue(result.isFirst());
         assertTrue(result.isLast());
 
-        verify(userRepository, times(1)).findAll(any(Pageable.class));
-        verify(userMapper, times(2)).entityToResponse(any(UserEntity.class));
+        verify(userRepository, times(1)).findResponses(any(Pageable.class));
+        verify(userMapper, never()).entityToResponse(any(UserEntity.class));
     }
 
     @Test
     @DisplayName("Get All Users With Pagination - Empty Page")
     void testGetAllUsersWithPaginationEmpty() {
-        Page<UserEntity> emptyPage = new PageImpl<>(
+        Page<UserResponse> emptyPage = new PageImpl<>(
             Arrays.asList(),
             PageRequest.of(0, 10),
             0
         );
 
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+        when(userRepository.findResponses(any(Pageable.class))).thenReturn(emptyPage);
 
-        PageResponse<UserResponse> result = userService.getAllUsers(0, 10);
+        PageResponse<UserResponse> result = userService.getAllUsers(0, 10, CountStrategy.EXACT);
 
         assertNotNull(result);
         assertTrue(result.getContent().isEmpty());
         assertEquals(0L, result.getTotalElements());
 
-        verify(userRepository, times(1)).findAll(any(Pageable.class));
+        verify(userRepository, times(1)).findResponses(any(Pageable.class));
     }
 
     @Test
     @DisplayName("Get All Users With Pagination - Verifies Sorting")
     void testGetAllUsersWithPaginationSorting() {
-        Page<UserEntity> page = new PageImpl<>(Arrays.asList(userEntity));
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(page);
-        when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
+        Page<UserResponse> page = new PageImpl<>(Arrays.asList(userResponse));
+        when(userRepository.findResponses(any(Pageable.class))).thenReturn(page);
 
-        userService.getAllUsers(0, 10);
+        userService.getAllUsers(0, 10, CountStrategy.EXACT);
 
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        verify(userRepository).findAll(pageableCaptor.capture());
+        verify(userRepository).findResponses(pageableCaptor.capture());
         
         Pageable capturedPageable = pageableCaptor.getValue();
         assertEquals(0, capturedPageable.getPageNumber());
@@ -283,23 +441,140 @@ class UserServiceImplTest {
         assertNotNull(capturedPageable.getSort());
     }
 
+    @Test
+    @DisplayName("Get All Users - Offset page with more results carries a cursor")
+    void testGetAllUsersNextCursor() {
+        Page<UserResponse> page = new PageImpl<>(List.of(userResponse), PageRequest.of(0, 1), 5);
+        when(userRepository.findResponses(any(Pageable.class))).thenReturn(page);
+
+        PageResponse<UserResponse> result = userService.getAllUsers(0, 1, CountStrategy.EXACT);
+
+        assertEquals(UserCursor.encode(1L), result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Get All Users - Cached count, slice query without COUNT(*)")
+    void testGetAllUsersCachedCount() {
+        Slice<UserResponse> slice = new SliceImpl<>(List.of(userResponse), PageRequest.of(0, 1), true);
+        when(userRepository.findResponseSlice(any(Pageable.class))).thenReturn(slice);
+        when(userCounter.count(CountStrategy.CACHED)).thenReturn(42L);
+
+        PageResponse<UserResponse> result = userService.getAllUsers(0, 1, CountStrategy.CACHED);
+
+        assertEquals(42L, result.getTotalElements());
+        assertEquals(42, result.getTotalPages());
+        assertEquals(CountStrategy.CACHED, result.getCountStrategy());
+        assertTrue(result.isHasNext());
+        verify(userRepository, never()).findResponses(any(Pageable.class));
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Get All Users - Approximate total is corrected by the last page")
+    void testGetAllUsersEstimatedCountLastPage() {
+        Slice<UserResponse> slice = new SliceImpl<>(List.of(userResponse), PageRequest.of(2, 10), false);
+        when(userRepository.findResponseSlice(any(Pageable.class))).thenReturn(slice);
+        when(userCounter.count(CountStrategy.ESTIMATED)).thenReturn(35L);
+
+        PageResponse<UserResponse> result = userService.getAllUsers(2, 10, CountStrategy.ESTIMATED);
+
+        assertEquals(21L, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertTrue(result.isLast());
+    }
+
+    @Test
+    @DisplayName("Get All Users - No count strategy given uses the default, NONE leaves totals out")
+    void testGetAllUsersDefaultNoCount() {
+        Slice<UserResponse> slice = new SliceImpl<>(List.of(userResponse), PageRequest.of(0, 10), false);
+        when(userCounter.getDefaultStrategy()).thenReturn(CountStrategy.NONE);
+        when(userCounter.count(CountStrategy.NONE)).thenReturn(null);
+        when(userRepository.findResponseSlice(any(Pageable.class))).thenReturn(slice);
+
+        PageResponse<UserResponse> result = userService.getAllUsers(0, 10, null);
+
+        assertNull(result.getTotalElements());
+        assertNull(result.getTotalPages());
+        assertEquals(CountStrategy.NONE, result.getCountStrategy());
+        assertTrue(result.isLast());
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Get Users After Cursor - First page, one extra row decides hasNext")
+    void testGetUsersAfterFirstPage() {
+        UserResponse user2 = UserResponse.builder().id(2L).username("user2").build();
+        UserResponse user3 = UserResponse.builder().id(3L).username("user3").build();
+        when(userRepository.findNewestResponses(Limit.of(3))).thenReturn(List.of(user3, user2, userResponse));
+
+        PageResponse<UserResponse> result = userService.getUsersAfter(null, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(2, result.getPageSize());
+        assertTrue(result.isFirst());
+        assertTrue(result.isHasNext());
+        assertFalse(result.isLast());
+        assertEquals(UserCursor.encode(2L), result.getNextCursor());
+        assertNull(result.getTotalElements());
+        assertNull(result.getPageNumber());
+
+        verify(userMapper, never()).entityToResponse(any(UserEntity.class));
+        verify(userRepository, never()).findResponses(any(Pageable.class));
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Get Users After Cursor - Seeks below the cursor ID, last page")
+    void testGetUsersAfterLastPage() {
+        when(userRepository.findResponsesBefore(2L, Limit.of(3))).thenReturn(List.of(userResponse));
+
+        PageResponse<UserResponse> result = userService.getUsersAfter(UserCursor.encode(2L), 2);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isFirst());
+        assertTrue(result.isHasPrevious());
+        assertTrue(result.isLast());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Get Users After Cursor - Invalid cursor or size")
+    void testGetUsersAfterInvalid() {
+        assertThrows(BusinessException.class, () -> userService.getUsersAfter("not-a-cursor", 10));
+        assertThrows(BusinessException.class, () -> userService.getUsersAfter(
+            Base64.getUrlEncoder().encodeToString("id:abc".getBytes(StandardCharsets.US_ASCII)), 10));
+        assertThrows(BusinessException.class, () -> userService.getUsersAfter(null, 0));
+        assertThrows(BusinessException.class, () -> userService.getUsersAfter(null, UserService.MAX_PAGE_SIZE + 1));
+        assertThrows(BusinessException.class, () -> userService.getUsersAfter(null, Integer.MAX_VALUE));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Get Users After Cursor - Largest page size accepted")
+    void testGetUsersAfterMaxSize() {
+        when(userRepository.findNewestResponses(Limit.of(UserService.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+
+        PageResponse<UserResponse> result = userService.getUsersAfter(null, UserService.MAX_PAGE_SIZE);
+
+        assertEquals(UserService.MAX_PAGE_SIZE, result.getPageSize());
+        assertTrue(result.isLast());
+    }
+
     @Test
     @DisplayName("Update Last Login - Success")
     void testUpdateLastLoginSuccess() {
         // Given
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
 
         // When
         userService.updateLastLogin("testuser");
 
         // Then
-        ArgumentCaptor<UserEntity> entityCaptor = ArgumentCaptor.forClass(UserEntity.class);
         verify(userRepository, times(1)).findByUsername("testuser");
-        verify(userRepository, times(1)).save(entityCaptor.capture());
-        
-        UserEntity savedEntity = entityCaptor.getValue();
-        assertNotNull(savedEntity.getLastLoginAt());
+        verify(lastLoginBuffer, times(1)).record(eq(1L), any(LocalDateTime.class));
+        verify(userRepository, never()).save(any(UserEntity.class));
     }
 
     @Test
@@ -314,7 +589,7 @@ class UserServiceImplTest {
 
         assertTrue(exception.getMessage().contains("not found"));
         verify(userRepository, times(1)).findByUsername("nonexistent");
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(lastLoginBuffer, never()).record(anyLong(), any(LocalDateTime.class));
     }
 
     @Test
@@ -322,8 +597,7 @@ class UserServiceImplTest {
     void testUpdateUserSuccess() {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.findByEmail("newemail@example.com")).thenReturn(Optional.empty());
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenReturn(userEntity);
         
         UserResponse updatedResponse = UserResponse.builder()
             .id(1L)
@@ -341,8 +615,7 @@ class UserServiceImplTest {
         assertEquals("+9876543210", result.getPhone());
 
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findByEmail("newemail@example.com");
-        verify(userRepository, times(1)).save(any(UserEntity.class));
+        verify(userRepository, times(1)).saveAndFlush(any(UserEntity.class));
     }
 
     @Test
@@ -352,15 +625,15 @@ class UserServiceImplTest {
         emailOnlyRequest.setEmail("newemail@example.com");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.findByEmail("newemail@example.com")).thenReturn(Optional.empty());
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenReturn(userEntity);
         when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
 
         UserResponse result = userService.updateUser(1L, emailOnlyRequest);
 
         assertNotNull(result);
-        verify(userRepository, times(1)).findByEmail("newemail@example.com");
-        verify(userRepository, times(1)).save(any(UserEntity.class));
+        verify(userRepository, times(1)).saveAndFlush(any(UserEntity.class));
+        verify(eventPublisher, times(1)).publishEvent((Object) argThat(event -> event instanceof UserKeysTakenEvent taken
+            && taken.getKeys().equals(List.of("newemail@example.com"))));
     }
 
     @Test
@@ -370,14 +643,15 @@ class UserServiceImplTest {
         phoneOnlyRequest.setPhone("+9876543210");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenReturn(userEntity);
         when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
 
         UserResponse result = userService.updateUser(1L, phoneOnlyRequest);
 
         assertNotNull(result);
         verify(userRepository, never()).findByEmail(anyString());
-        verify(userRepository, times(1)).save(any(UserEntity.class));
+        verify(userRepository, times(1)).saveAndFlush(any(UserEntity.class));
+        verify(eventPublisher, never()).publishEvent(any(UserKeysTakenEvent.class));
     }
 
     @Test
@@ -392,21 +666,18 @@ class UserServiceImplTest {
 
         assertTrue(exception.getMessage().contains("User"));
         verify(userRepository, times(1)).findById(999L);
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(userRepository, never()).saveAndFlush(any(UserEntity.class));
     }
 
     @Test
     @DisplayName("Update User - Email Already Exists")
     void testUpdateUserEmailExists() {
-        UserEntity anotherUser = UserEntity.builder()
-            .id(2L)
-            .username("anotheruser")
-            .email("newemail@example.com")
-            .build();
-
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.findByEmail("newemail@example.com"))
-            .thenReturn(Optional.of(anotherUser));
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenThrow(new DataIntegrityViolationException(
+            "could not execute statement",
+            new ConstraintViolationException("Duplicate entry", null,
+                ConstraintViolationException.ConstraintKind.UNIQUE, "users.idx_email")
+        ));
 
         DuplicateResourceException exception = assertThrows(
             DuplicateResourceException.class,
@@ -414,9 +685,10 @@ class UserServiceImplTest {
         );
 
         assertTrue(exception.getMessage().contains("already exists"));
+        assertTrue(exception.getMessage().contains("newemail@example.com"));
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findByEmail("newemail@example.com");
-        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -426,16 +698,14 @@ class UserServiceImplTest {
         sameEmailRequest.setEmail("test@example.com"); // Same as current
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.findByEmail("test@example.com"))
-            .thenReturn(Optional.of(userEntity)); // Returns same user
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenReturn(userEntity);
         when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
 
         UserResponse result = userService.updateUser(1L, sameEmailRequest);
 
         assertNotNull(result);
-        verify(userRepository, times(1)).findByEmail("test@example.com");
-        verify(userRepository, times(1)).save(any(UserEntity.class));
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, times(1)).saveAndFlush(any(UserEntity.class));
     }
 
     @Test
@@ -445,7 +715,7 @@ class UserServiceImplTest {
         blankEmailRequest.setEmail("   "); // Blank
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenReturn(userEntity);
         when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
 
         userService.updateUser(1L, blankEmailRequest);
@@ -460,13 +730,42 @@ class UserServiceImplTest {
         blankPhoneRequest.setPhone("   "); // Blank
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
-        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(userRepository.saveAndFlush(any(UserEntity.class))).thenReturn(userEntity);
         when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
 
         UserResponse result = userService.updateUser(1L, blankPhoneRequest);
 
         assertNotNull(result);
-        verify(userRepository, times(1)).save(any(UserEntity.class));
+        verify(userRepository, times(1)).saveAndFlush(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Update Status - Success Publishes Status Change")
+    void testUpdateStatusSuccess() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
+        when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
+        when(userMapper.entityToResponse(any(UserEntity.class))).thenReturn(userResponse);
+
+        userService.updateStatus(1L, UserStatus.LOCKED);
+
+        assertEquals(UserStatus.LOCKED, userEntity.getStatus());
+        ArgumentCaptor<UserChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        assertEquals("testuser", eventCaptor.getValue().getUsername());
+        assertEquals(UserChangedEvent.ChangeType.STATUS_CHANGED, eventCaptor.getValue().getChangeType());
     }
-}
 
+    @Test
+    @DisplayName("Update Status - User Not Found")
+    void testUpdateStatusUserNotFound() {
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(
+            ResourceNotFoundException.class,
+            () -> userService.updateStatus(999L, UserStatus.LOCKED)
+        );
+
+        verify(userRepository, never()).save(any(UserEntity.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
@@ -0,0 +1,43 @@
+package com.eddy.dream.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("At its configured capacity - no false negatives, false-positive rate close to the configured one")
+    void testFalsePositiveRateAtCapacity() {
+        int capacity = 10_000;
+        BloomFilter filter = new BloomFilter(capacity, 0.01);
+        for (int i = 0; i < capacity; i++) {
+            filter.put("token-" + i);
+        }
+
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+        }
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 0.015, "observed false-positive rate " + observed);
+        assertEquals(capacity, filter.insertions());
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+    }
+
+    @Test
+    @DisplayName("Empty - nothing might be contained")
+    void testEmpty() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("token"));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+}
@@ -0,0 +1,224 @@
+package com.eddy.dream.util;
+
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.enums.UserStatus;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests - FastJwtVerifier must never accept a token JJWT rejects,
+ * and must produce exactly the same claims for every token it accepts.
+ */
+class FastJwtVerifierTest {
+
+    private static final String SECRET = "MyVerySecretKeyForJWTTokenGenerationAndValidation2024DreamApplicationSecure";
+
+    private JwtUtil jwtUtil;
+    private SecretKey key;
+    private FastJwtVerifier verifier;
+    private String header;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400L);
+        ReflectionTestUtils.setField(jwtUtil, "fastPathEnabled", true);
+        jwtUtil.init();
+
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        verifier = (FastJwtVerifier) ReflectionTestUtils.getField(jwtUtil, "fastJwtVerifier");
+        header = base64Url("{\"alg\":\"HS512\"}");
+    }
+
+    @Test
+    @DisplayName("Issued tokens - fast path accepts with identical claims")
+    void testIssuedTokensTakeFastPath() {
+        List<String> tokens = List.of(
+            jwtUtil.generateToken(new AuthenticatedUser(
+                42L, "testuser", "hash", UserStatus.ACTIVE, List.of(new SimpleGrantedAuthority("ROLE_USER")))),
+            jwtUtil.generateToken(new AuthenticatedUser(
+                7L, "locked_user", "hash", UserStatus.LOCKED, List.of())),
+            jwtUtil.generateToken(new User("plain", "hash", List.of(
+                new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")))),
+            jwtUtil.generateToken(new User("用户_ü", "hash", List.of(new SimpleGrantedAuthority("ROLE_USER")))),
+            jwtUtil.generateToken(new User("custom", "hash", List.of(
+                new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_CUSTOM"))))
+        );
+
+        for (String token : tokens) {
+            VerifiedToken fast = verifier.verify(token, System.currentTimeMillis());
+            assertNotNull(fast, "fast path should handle " + token);
+            assertEquals(jwtUtil.verifyTokenWithParser(token), fast);
+        }
+    }
+
+    @Test
+    @DisplayName("Role mask - decoded into the shared authority instances")
+    void testRoleMaskUsesSharedAuthorities() {
+        String token = jwtUtil.generateToken(new User("admin", "hash", List.of(
+            new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"))));
+
+        VerifiedToken fast = jwtUtil.verifyToken(token);
+        VerifiedToken parsed = jwtUtil.verifyTokenWithParser(token);
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")),
+            fast.getAuthorities());
+        assertSame(fast.getAuthorities(), parsed.getAuthorities());
+        assertSame(TokenRoles.authority("ROLE_ADMIN"), fast.getAuthorities().get(1));
+    }
+
+    @Test
+    @DisplayName("Hand-signed payloads - same outcome as JJWT")
+    void testHandSignedPayloads() {
+        long now = Instant.now().getEpochSecond();
+        long exp = now + 3600;
+        List<String> payloads = List.of(
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{ \"sub\" : \"a\" , \"iat\" : " + now + " , \"exp\" : " + exp + " }",
+            "{\"roles\":[\"ROLE_USER\"],\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"roles\":[],\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"rol\":3,\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"rol\":8,\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"rol\":-1,\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"rol\":1.0,\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"rol\":\"1\",\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"rol\":2,\"roles\":[\"ROLE_USER\"],\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"sub\":\"a\\\"b\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"sub\":\"\\u0061\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"sub\":123,\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"sub\":\"a\",\"aud\":\"x\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"sub\":\"a\",\"nbf\":" + (now + 600) + ",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"sub\":\"a\",\"sub\":\"b\",\"iat\":" + now + ",\"exp\":" + exp + "}",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + ".5}",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":-1}",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":0" + exp + "}",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + (now - 10) + "}",
+            "{\"sub\":\"a\",\"iat\":" + now + "}",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + "} trailing",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + ",\"uid\":null}",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + ",\"roles\":[{\"authority\":\"R\",\"x\":1}]}",
+            "{\"sub\":\"a\",\"iat\":" + now + ",\"exp\":" + exp + ",\"roles\":{\"authority\":\"R\"}}",
+            "{}",
+            "[]",
+            "not json"
+        );
+
+        for (String payload : payloads) {
+            assertSameOutcome(sign(header, base64Url(payload)));
+        }
+    }
+
+    @Test
+    @DisplayName("Foreign and tampered tokens - never accepted by the fast path")
+    void testForeignAndTamperedTokens() {
+        String valid = jwtUtil.generateToken(new User("testuser", "hash", List.of()));
+        int firstDot = valid.indexOf('.');
+        int lastDot = valid.lastIndexOf('.');
+        SecretKey otherKey = Keys.hmacShaKeyFor(
+            "AnotherSecretKeyThatIsLongEnoughForHmacSha512SigningPurposesOnly123456".getBytes(StandardCharsets.UTF_8));
+
+        List<String> tokens = new ArrayList<>(List.of(
+            // Different key
+            Jwts.builder().subject("testuser").issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60000)).signWith(otherKey).compact(),
+            // Different algorithm, same key
+            Jwts.builder().subject("testuser").issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60000)).signWith(key, Jwts.SIG.HS256).compact(),
+            // Unsigned
+            base64Url("{\"alg\":\"none\"}") + "." + valid.substring(firstDot + 1, lastDot) + ".",
+            // Structural damage
+            valid.substring(0, lastDot),
+            valid + ".extra",
+            valid.substring(0, valid.length() - 2),
+            valid + "A",
+            valid.replace('.', '!'),
+            "",
+            "garbage"
+        ));
+
+        // Expired token
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -10L);
+        tokens.add(jwtUtil.generateToken(new User("testuser", "hash", List.of())));
+
+        for (String token : tokens) {
+            assertSameOutcome(token);
+        }
+    }
+
+    @Test
+    @DisplayName("Random single-character mutations - same outcome as JJWT")
+    void testRandomMutations() {
+        String valid = jwtUtil.generateToken(new AuthenticatedUser(
+            1L, "testuser", "hash", UserStatus.ACTIVE, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.=+/ é";
+        Random random = new Random(20240101L);
+
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = valid.toCharArray();
+            chars[random.nextInt(chars.length)] = alphabet.charAt(random.nextInt(alphabet.length()));
+            assertSameOutcome(new String(chars));
+        }
+    }
+
+    /**
+     * Fast path may decline, but if it accepts, JJWT must accept with equal claims;
+     * and JwtUtil.verifyToken (fast path + fallback) must behave exactly like JJWT alone.
+     */
+    private void assertSameOutcome(String token) {
+        VerifiedToken expected = null;
+        Class<? extends Exception> expectedError = null;
+        try {
+            expected = jwtUtil.verifyTokenWithParser(token);
+        } catch (Exception e) {
+            expectedError = e.getClass();
+        }
+
+        VerifiedToken fast = verifier.verify(token, System.currentTimeMillis());
+        if (fast != null) {
+            assertNull(expectedError, "fast path accepted a token JJWT rejects: " + token);
+            assertEquals(expected, fast);
+        }
+
+        try {
+            VerifiedToken actual = jwtUtil.verifyToken(token);
+            assertNull(expectedError, "verifyToken accepted a token JJWT rejects: " + token);
+            assertEquals(expected, actual);
+        } catch (Exception e) {
+            assertEquals(expectedError, e.getClass(), "different failure for " + token);
+        }
+    }
+
+    private String sign(String encodedHeader, String encodedPayload) {
+        try {
+            Mac mac = Mac.getInstance(key.getAlgorithm());
+            mac.init(key);
+            byte[] signature = mac.doFinal((encodedHeader + "." + encodedPayload).getBytes(StandardCharsets.US_ASCII));
+            return encodedHeader + "." + encodedPayload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64Url(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
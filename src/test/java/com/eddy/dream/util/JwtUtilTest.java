@@ -0,0 +1,108 @@
+package com.eddy.dream.util;
+
+import com.eddy.dream.config.security.AuthenticatedUser;
+import com.eddy.dream.enums.UserStatus;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MissingClaimException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * verifyToken - which tokens take the fast path, which fall back to JJWT, and which are rejected
+ */
+class JwtUtilTest {
+
+    private static final String SECRET = "MyVerySecretKeyForJWTTokenGenerationAndValidation2024DreamApplicationSecure";
+
+    private JwtUtil jwtUtil;
+    private SecretKey key;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil target = new JwtUtil();
+        ReflectionTestUtils.setField(target, "secret", SECRET);
+        ReflectionTestUtils.setField(target, "expiration", 86400L);
+        ReflectionTestUtils.setField(target, "fastPathEnabled", true);
+        target.init();
+        jwtUtil = spy(target);
+
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Issued token - fast path, JJWT not involved")
+    void testIssuedTokenTakesFastPath() {
+        String token = jwtUtil.generateToken(new AuthenticatedUser(
+            42L, "testuser", "hash", UserStatus.ACTIVE, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+
+        assertEquals("testuser", verified.getSubject());
+        assertEquals(42L, verified.getUserId());
+        verify(jwtUtil, never()).verifyTokenWithParser(anyString());
+    }
+
+    @Test
+    @DisplayName("Different header - falls back to JJWT")
+    void testDifferentHeaderFallsBack() {
+        String token = Jwts.builder()
+            .header().type("JWT").and()
+            .subject("testuser").issuedAt(new Date()).expiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(key)
+            .compact();
+
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+
+        assertEquals("testuser", verified.getSubject());
+        verify(jwtUtil).verifyTokenWithParser(token);
+    }
+
+    @Test
+    @DisplayName("Unexpected claims - fall back to JJWT")
+    void testUnexpectedClaimsFallBack() {
+        String token = Jwts.builder()
+            .subject("testuser").audience().add("other-service").and()
+            .issuedAt(new Date()).expiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(key)
+            .compact();
+
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+
+        assertEquals("testuser", verified.getSubject());
+        verify(jwtUtil).verifyTokenWithParser(token);
+    }
+
+    @Test
+    @DisplayName("Missing iat or exp - rejected with a JwtException")
+    void testMissingDatesRejected() {
+        String withoutIssuedAt = Jwts.builder()
+            .subject("testuser").expiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(key)
+            .compact();
+        String withoutExpiration = Jwts.builder()
+            .subject("testuser").issuedAt(new Date())
+            .signWith(key)
+            .compact();
+
+        MissingClaimException noIat = assertThrows(MissingClaimException.class, () -> jwtUtil.verifyToken(withoutIssuedAt));
+        MissingClaimException noExp = assertThrows(MissingClaimException.class, () -> jwtUtil.verifyToken(withoutExpiration));
+
+        assertEquals("iat", noIat.getClaimName());
+        assertEquals("exp", noExp.getClaimName());
+        assertInstanceOf(JwtException.class, noIat);
+    }
+}